@@ -0,0 +1,204 @@
+package net.saturn.bench;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Just enough of the Bukkit API to run the plugin's hot paths without a server.
+ * Interfaces are backed by dynamic proxies that answer the handful of methods the benchmarks reach
+ * and throw on anything else, so a benchmark that wanders off the stubbed path fails instead of lying.
+ */
+public final class BukkitStubs {
+
+    private static final Constructor<?> BLOCK_PROXY = proxyConstructor(Block.class);
+
+    private BukkitStubs() {
+    }
+
+    /* ============================================================
+       WORLD
+       ============================================================ */
+
+    /**
+     * A world made of a single chunk column that repeats in every direction
+     */
+    public static final class StubWorld {
+
+        private final World world;
+        private final int minHeight;
+        private final int maxHeight;
+        private final Material[] blocks;
+
+        public StubWorld(String name, int minHeight, int maxHeight) {
+            this.minHeight = minHeight;
+            this.maxHeight = maxHeight;
+            this.blocks = new Material[16 * 16 * (maxHeight - minHeight)];
+            Arrays.fill(blocks, Material.STONE);
+
+            UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+            this.world = proxy(World.class, (self, method, args) -> switch (method.getName()) {
+                case "getName" -> name;
+                case "getUID" -> uid;
+                case "getMinHeight" -> minHeight;
+                case "getMaxHeight" -> maxHeight;
+                case "getBlockAt" -> blockAt((int) args[0], (int) args[1], (int) args[2]);
+                case "dropItemNaturally" -> null;
+                default -> objectMethod(self, method, args, name);
+            });
+        }
+
+        public World world() {
+            return world;
+        }
+
+        public Material[] blocks() {
+            return blocks;
+        }
+
+        private Block blockAt(int x, int y, int z) {
+            int index = ((y - minHeight) * 16 + (z & 15)) * 16 + (x & 15);
+            try {
+                return (Block) BLOCK_PROXY.newInstance((InvocationHandler) (self, method, args) -> switch (method.getName()) {
+                    case "getType" -> blocks[index];
+                    case "setType" -> {
+                        blocks[index] = (Material) args[0];
+                        yield null;
+                    }
+                    default -> objectMethod(self, method, args, "Block{" + x + "," + y + "," + z + "}");
+                });
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /* ============================================================
+       PLAYER
+       ============================================================ */
+
+    /**
+     * A player whose inventory is a plain 41 slot array: 0-35 storage, 36-39 armor, 40 off-hand
+     */
+    public static final class StubPlayer {
+
+        public static final int STORAGE_SIZE = 36;
+        public static final int OFF_HAND = 40;
+
+        private final Player player;
+        private final ItemStack[] slots = new ItemStack[41];
+
+        public StubPlayer(World world) {
+            UUID uuid = UUID.randomUUID();
+            Location location = new Location(world, 0.5, 64, 0.5);
+
+            PlayerInventory inventory = proxy(PlayerInventory.class, (self, method, args) -> switch (method.getName()) {
+                // Like the server, the content getters hand out copies
+                case "getStorageContents" -> Arrays.copyOfRange(slots, 0, STORAGE_SIZE);
+                case "getArmorContents" -> Arrays.copyOfRange(slots, STORAGE_SIZE, OFF_HAND);
+                case "setArmorContents" -> {
+                    System.arraycopy((ItemStack[]) args[0], 0, slots, STORAGE_SIZE, OFF_HAND - STORAGE_SIZE);
+                    yield null;
+                }
+                case "getItemInOffHand" -> slots[OFF_HAND];
+                case "setItemInOffHand" -> {
+                    slots[OFF_HAND] = (ItemStack) args[0];
+                    yield null;
+                }
+                case "getItem" -> slots[(int) args[0]];
+                case "setItem" -> {
+                    slots[(int) args[0]] = (ItemStack) args[1];
+                    yield null;
+                }
+                default -> objectMethod(self, method, args, "PlayerInventory");
+            });
+
+            this.player = proxy(Player.class, (self, method, args) -> switch (method.getName()) {
+                case "getUniqueId" -> uuid;
+                case "getInventory" -> inventory;
+                case "getWorld" -> world;
+                case "getLocation" -> location.clone();
+                default -> objectMethod(self, method, args, "Player{" + uuid + "}");
+            });
+        }
+
+        public Player player() {
+            return player;
+        }
+
+        public ItemStack[] slots() {
+            return slots;
+        }
+    }
+
+    /**
+     * Server-free item stack, the real one delegates to a stack that only exists inside the server
+     */
+    public static final class StubItem extends ItemStack {
+
+        private final Material type;
+        private int amount;
+
+        public StubItem(Material type, int amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+
+        @Override
+        public Material getType() {
+            return type;
+        }
+
+        @Override
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public StubItem clone() {
+            return new StubItem(type, amount);
+        }
+    }
+
+    /* ============================================================
+       PROXIES
+       ============================================================ */
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(BukkitStubs.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Constructor<?> proxyConstructor(Class<?> type) {
+        try {
+            Object sample = proxy(type, (self, method, args) -> null);
+            return sample.getClass().getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object objectMethod(Object self, Method method, Object[] args, String name) {
+        return switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            case "toString" -> name;
+            default -> throw new UnsupportedOperationException("Not stubbed: " + method);
+        };
+    }
+}
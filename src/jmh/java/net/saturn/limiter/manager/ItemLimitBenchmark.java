@@ -0,0 +1,59 @@
+package net.saturn.limiter.manager;
+
+import net.saturn.bench.BukkitStubs;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+
+/**
+ * {@link ItemLimitManager#countItemInInventory} and {@link ItemLimitManager#dropExcess} on a full inventory.
+ * Five pearl stacks are spread over storage, armor and off-hand against a limit of 16, the rest is filler.
+ */
+@State(Scope.Benchmark)
+public class ItemLimitBenchmark {
+
+    private static final Material LIMITED = Material.ENDER_PEARL;
+
+    private ItemLimitManager manager;
+    private BukkitStubs.StubPlayer player;
+    private ItemStack[] original;
+    private int[] amounts;
+
+    @Setup
+    public void setup() {
+        manager = new ItemLimitManager(Map.of(LIMITED, 16));
+        player = new BukkitStubs.StubPlayer(new BukkitStubs.StubWorld("world", -64, 320).world());
+
+        ItemStack[] slots = player.slots();
+        for (int i = 0; i < slots.length; i++) {
+            boolean pearl = i == 0 || i == 9 || i == 35 || i == 38 || i == BukkitStubs.StubPlayer.OFF_HAND;
+            slots[i] = new BukkitStubs.StubItem(pearl ? LIMITED : Material.COBBLESTONE, pearl ? 16 : 64);
+        }
+        original = slots.clone();
+        amounts = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            amounts[i] = original[i].getAmount();
+        }
+    }
+
+    @Benchmark
+    public int countItemInInventory() {
+        return manager.countItemInInventory(player.player(), LIMITED);
+    }
+
+    @Benchmark
+    public int dropExcess() {
+        // Put the inventory back first, restoring in place keeps the reset itself allocation-free
+        ItemStack[] slots = player.slots();
+        for (int i = 0; i < slots.length; i++) {
+            original[i].setAmount(amounts[i]);
+            slots[i] = original[i];
+        }
+        return manager.dropExcess(player.player(), LIMITED);
+    }
+}
@@ -0,0 +1,110 @@
+package net.saturn.managers.combat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The combat state behind {@code CombatManager.tagPlayer} and {@code isInCombat}.
+ * The manager itself needs a running plugin, so this repeats its steps on the same structures: a clock read and
+ * one probe for every combat check, and for every hit a clock read, the lock, a table write, the refreshed set and
+ * the attacker map, with the end-of-tick wheel flush spread over the hits of a tick. The journal is left out.
+ */
+@State(Scope.Benchmark)
+public class CombatTagBenchmark {
+
+    private static final long DURATION_MS = 15_000L;
+    private static final int HITS_PER_TICK = 200;
+
+    @Param({"1000", "10000"})
+    public int players;
+
+    private final Object lock = new Object();
+    private UUID[] tagged;
+    private UUID[] untagged;
+    private CombatTagTable table;
+    private CombatTagWheel wheel;
+    private Set<UUID> refreshedTags;
+    private Map<UUID, UUID> lastAttackers;
+    private int next;
+    private int hitsThisTick;
+
+    @Setup
+    public void setup() {
+        tagged = new UUID[players];
+        untagged = new UUID[players];
+        table = new CombatTagTable();
+        wheel = new CombatTagWheel(512);
+        refreshedTags = new HashSet<>();
+        lastAttackers = new ConcurrentHashMap<>();
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < players; i++) {
+            tagged[i] = UUID.randomUUID();
+            untagged[i] = UUID.randomUUID();
+            table.put(tagged[i], now + DURATION_MS);
+            wheel.schedule(tagged[i], now + DURATION_MS);
+        }
+    }
+
+    @Benchmark
+    public boolean isInCombatTagged() {
+        long expireTime = table.get(tagged[advance()]);
+        return expireTime != 0L && System.currentTimeMillis() < expireTime;
+    }
+
+    @Benchmark
+    public boolean isInCombatUntagged() {
+        long expireTime = table.get(untagged[advance()]);
+        return expireTime != 0L && System.currentTimeMillis() < expireTime;
+    }
+
+    @Benchmark
+    public boolean tagPlayerRefresh() {
+        // A hit on a player already in combat, as tagLocked handles it
+        UUID uuid = tagged[advance()];
+        UUID attacker = tagged[next];
+        long now = System.currentTimeMillis();
+        boolean moved = false;
+        synchronized (lock) {
+            if (wheel.contains(uuid)) {
+                long expireTime = now + DURATION_MS;
+                if (expireTime > table.get(uuid)) {
+                    table.put(uuid, expireTime);
+                    moved = refreshedTags.add(uuid);
+                }
+                lastAttackers.put(uuid, attacker);
+            }
+
+            if (++hitsThisTick == HITS_PER_TICK) {
+                hitsThisTick = 0;
+                flushRefreshedTags();
+            }
+        }
+        return moved;
+    }
+
+    private void flushRefreshedTags() {
+        for (UUID uuid : refreshedTags) {
+            long expireTime = table.get(uuid);
+            if (expireTime != 0L && wheel.contains(uuid)) {
+                wheel.schedule(uuid, expireTime);
+            }
+        }
+        refreshedTags.clear();
+    }
+
+    private int advance() {
+        int index = next;
+        next = index + 1 == players ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,45 @@
+package net.saturn.managers.regions;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import net.saturn.bench.BukkitStubs;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Set;
+
+/**
+ * {@link RegionBorderVisualizer#getRegionBorderBlocks} for a player standing in the middle of a square region.
+ * The vertical range covers the settings fallback (5) and the value config.yml ships with (15).
+ */
+@State(Scope.Benchmark)
+public class RegionBorderBenchmark {
+
+    @Param({"64", "256", "1024"})
+    public int regionSize;
+
+    @Param({"5", "15"})
+    public int verticalRange;
+
+    private ProtectedRegion region;
+    private Location playerLocation;
+
+    @Setup
+    public void setup() {
+        int half = regionSize / 2;
+        region = new ProtectedCuboidRegion("spawn",
+                BlockVector3.at(-half, -64, -half),
+                BlockVector3.at(half - 1, 319, half - 1));
+        playerLocation = new Location(new BukkitStubs.StubWorld("world", -64, 320).world(), 0.5, 64, 0.5);
+    }
+
+    @Benchmark
+    public Set<Location> getRegionBorderBlocks() {
+        return RegionBorderVisualizer.getRegionBorderBlocks(region, playerLocation, verticalRange);
+    }
+}
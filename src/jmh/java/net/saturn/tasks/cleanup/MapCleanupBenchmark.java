@@ -0,0 +1,52 @@
+package net.saturn.tasks.cleanup;
+
+import net.saturn.bench.BukkitStubs;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * {@link MapCleanupTask#clearBlocksInChunk} on one full-height overworld chunk.
+ * The chunk is stone with the given percentage of cobblestone mixed in, and is rebuilt before every call
+ * since clearing it is the whole point. A call takes milliseconds, so the per-invocation reset is noise.
+ */
+@State(Scope.Benchmark)
+public class MapCleanupBenchmark {
+
+    @Param({"0", "5", "50"})
+    public int placedPercent;
+
+    private MapCleanupTask task;
+    private BukkitStubs.StubWorld world;
+    private Material[] template;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        task = new MapCleanupTask(null); // Clearing a chunk never touches the plugin
+        world = new BukkitStubs.StubWorld("world", -64, 320);
+
+        Random random = new Random(42);
+        template = world.blocks().clone();
+        for (int i = 0; i < template.length; i++) {
+            if (random.nextInt(100) < placedPercent) {
+                template[i] = Material.COBBLESTONE;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetChunk() {
+        System.arraycopy(template, 0, world.blocks(), 0, template.length);
+    }
+
+    @Benchmark
+    public int clearBlocksInChunk() {
+        return task.clearBlocksInChunk(world.world(), 0, 0);
+    }
+}
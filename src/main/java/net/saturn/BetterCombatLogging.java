@@ -1,38 +1,70 @@
 package net.saturn;
 
+import net.saturn.api.CombatService;
 import net.saturn.commands.BlockedRegionCommand;
+import net.saturn.commands.ReloadCommand;
 import net.saturn.commands.cleanup.MapCleanCommand;
 import net.saturn.commands.cleanup.ItemClearCommand;
 import net.saturn.commands.combat.CombatCommand;
 import net.saturn.commands.combat.CombatDurationCommand;
 import net.saturn.commands.combat.CombatTestCommand;
 import net.saturn.commands.limitations.ProtectionLimitCommand;
+import net.saturn.config.Messages;
+import net.saturn.config.PluginSettings;
 import net.saturn.limiter.listener.ItemLimitListener;
 import net.saturn.limiter.manager.ItemLimitManager;
 import net.saturn.listeners.CombatListener;
+import net.saturn.listeners.HazardListener;
 import net.saturn.listeners.ProtectionListener;
+import net.saturn.listeners.regions.CombatEntryHandler;
 import net.saturn.listeners.regions.InteractionListener;
 import net.saturn.managers.CombatManager;
 import net.saturn.managers.ProtectionManager;
+import net.saturn.managers.audit.CombatAuditLog;
+import net.saturn.managers.combat.CombatServiceView;
+import net.saturn.managers.combat.DamagerResolver;
+import net.saturn.managers.combat.HazardOwnerCache;
+import net.saturn.managers.regions.BlockedRegionIndex;
+import net.saturn.managers.regions.CombatEntryFlag;
 import net.saturn.managers.regions.RegionBorderVisualizer;
 import net.saturn.managers.regions.RegionManager;
+import net.saturn.tasks.PluginScheduler;
 import net.saturn.tasks.cleanup.ItemClearTask;
 import net.saturn.tasks.cleanup.MapCleanupScheduler;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class BetterCombatLogging extends JavaPlugin {
 
+    private static final int HAZARD_CACHE_SIZE = 4096;
+
+    private PluginScheduler taskScheduler;
+    private volatile PluginSettings settings;
+    private Messages messages;
+    private CombatAuditLog auditLog;
     private CombatManager combatManager;
+    private DamagerResolver damagerResolver;
     private ProtectionManager protectionManager;
     private ItemLimitManager itemLimitManager;
     private RegionManager regionManager;
+    private BlockedRegionIndex blockedRegionIndex;
     private RegionBorderVisualizer regionVisualizer;
     private ItemClearTask itemClearTask;
     private MapCleanupScheduler mapCleanupScheduler;
     private boolean worldGuardEnabled = false;
 
+    @Override
+    public void onLoad() {
+        // WorldGuard only takes new flags while plugins load, before it is enabled
+        if (getServer().getPluginManager().getPlugin("WorldGuard") != null && CombatEntryFlag.register(getLogger())) {
+            getLogger().info("Registered the " + CombatEntryFlag.NAME + " WorldGuard flag");
+        }
+    }
+
     @Override
     public void onEnable() {
+        taskScheduler = new PluginScheduler(this);
+
         // Check for WorldGuard (optional for region-based features)
         if (getServer().getPluginManager().getPlugin("WorldGuard") != null) {
             worldGuardEnabled = true;
@@ -43,9 +75,16 @@ public final class BetterCombatLogging extends JavaPlugin {
 
         // Save default config
         saveDefaultConfig();
+        settings = PluginSettings.load(getConfig());
+        messages = new Messages(getConfig());
+        auditLog = new CombatAuditLog(this);
+        auditLog.start();
 
         // Initialize managers
         combatManager = new CombatManager(this);
+        combatManager.start();
+        damagerResolver = new DamagerResolver(new HazardOwnerCache(HAZARD_CACHE_SIZE));
+        getServer().getServicesManager().register(CombatService.class, new CombatServiceView(combatManager), this, ServicePriority.Normal);
         protectionManager = new ProtectionManager(this);
         protectionManager.load();
 
@@ -55,42 +94,61 @@ public final class BetterCombatLogging extends JavaPlugin {
         regionManager = new RegionManager(this);
         regionManager.load();
 
+        // Index the blocked regions so move checks never have to query WorldGuard
+        if (worldGuardEnabled) {
+            blockedRegionIndex = new BlockedRegionIndex(this);
+
+            // Entry is refused by WorldGuard's own move handling. At startup WorldGuard and the worlds come up
+            // after this plugin, after a reload they are already there.
+            if (getServer().getPluginManager().isPluginEnabled("WorldGuard")) {
+                CombatEntryHandler.register(this);
+                refreshRegions();
+            } else {
+                taskScheduler.runGlobalLater(() -> {
+                    CombatEntryHandler.register(this);
+                    refreshRegions();
+                }, 1L);
+            }
+        }
+
         // Initialize region visualizer if WorldGuard is enabled
-        if (worldGuardEnabled && getConfig().getBoolean("region-visualizer.enabled", true)) {
+        if (worldGuardEnabled && settings.visualizerEnabled()) {
             regionVisualizer = new RegionBorderVisualizer(this);
             regionVisualizer.start();
             getLogger().info("Region border visualizer started with optimized rendering!");
         }
 
         // Register listeners
-        getServer().getPluginManager().registerEvents(new CombatListener(this, combatManager), this);
+        getServer().getPluginManager().registerEvents(new CombatListener(this, combatManager, damagerResolver), this);
+        getServer().getPluginManager().registerEvents(new HazardListener(damagerResolver.getHazards(), damagerResolver), this);
         getServer().getPluginManager().registerEvents(new ProtectionListener(this, protectionManager), this);
         getServer().getPluginManager().registerEvents(new ItemLimitListener(this, itemLimitManager), this);
         getServer().getPluginManager().registerEvents(new net.saturn.limiter.listener.VillagerTradeListener(this, itemLimitManager), this);
 
         // Only register RegionListener if WorldGuard is present
         if (worldGuardEnabled) {
-            getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionListener(this, combatManager), this);
+            getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionListener(this, combatManager, blockedRegionIndex), this);
+            getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionChangeListener(this), this);
             getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionVisualizerListener(this), this);
-            getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionVehicleListener(this), this);
+            getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionVehicleListener(this, blockedRegionIndex), this);
             getServer().getPluginManager().registerEvents(new net.saturn.listeners.regions.RegionBlockBreakListener(this), this);
             getServer().getPluginManager().registerEvents(new InteractionListener(this), this);
         }
 
         // Start item clear task if enabled
-        if (getConfig().getBoolean("item-clear.enabled", true)) {
+        if (settings.itemClearEnabled()) {
             itemClearTask = new ItemClearTask(this);
-            itemClearTask.runTaskTimer(this, 0L, 20L); // Run every second
+            itemClearTask.start();
             getLogger().info("Item clear task started!");
         }
 
         // Start map cleanup scheduler if enabled
-        if (getConfig().getBoolean("cleanup.enabled", true)) {
-            int intervalMinutes = getConfig().getInt("cleanup.interval-minutes", 30);
+        if (settings.cleanupEnabled()) {
+            int intervalMinutes = settings.cleanupIntervalMinutes();
             long intervalTicks = intervalMinutes * 60L * 20L; // Convert minutes to ticks
 
             mapCleanupScheduler = new MapCleanupScheduler(this);
-            mapCleanupScheduler.runTaskTimer(this, intervalTicks, intervalTicks);
+            mapCleanupScheduler.start(intervalTicks);
             getLogger().info("Map cleanup scheduler started! Running every " + intervalMinutes + " minutes.");
         }
 
@@ -104,6 +162,7 @@ public final class BetterCombatLogging extends JavaPlugin {
         getCommand("mapclean").setExecutor(new MapCleanCommand(this));
         getCommand("itemclear").setExecutor(new ItemClearCommand(this));
         getCommand("togglevisualizer").setExecutor(new net.saturn.commands.ToggleVisualizerCommand(this));
+        getCommand("bclreload").setExecutor(new ReloadCommand(this));
 
         getLogger().info("BetterCombatLogging has been enabled with optimized performance!");
     }
@@ -115,11 +174,25 @@ public final class BetterCombatLogging extends JavaPlugin {
             regionVisualizer.stop();
         }
 
-        // Cancel all combat timers
+        // Detach from WorldGuard
+        if (blockedRegionIndex != null) {
+            CombatEntryHandler.unregister();
+            blockedRegionIndex.stop();
+        }
+
+        // Withdraw the combat API before its backing state goes away
+        getServer().getServicesManager().unregisterAll(this);
+
+        // Stop the combat ticker and clear boss bars
         if (combatManager != null) {
             combatManager.shutdown();
         }
 
+        // Drain and close the audit log
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+
         // Save protection limits
         if (protectionManager != null) {
             protectionManager.save();
@@ -148,6 +221,66 @@ public final class BetterCombatLogging extends JavaPlugin {
         getLogger().info("BetterCombatLogging has been disabled!");
     }
 
+    /**
+     * Reloads config.yml from disk and rebuilds everything derived from it
+     */
+    public void reloadSettings() {
+        reloadConfig();
+        refreshSettings();
+        messages.load(getConfig());
+        refreshBlockedRegions();
+    }
+
+    /**
+     * Rebuilds the settings snapshot from the in-memory config, used after commands change a setting
+     */
+    public void refreshSettings() {
+        settings = PluginSettings.load(getConfig());
+        if (combatManager != null) {
+            combatManager.reloadDurations();
+        }
+    }
+
+    /**
+     * Rebuilds everything derived from WorldGuard regions, used when regions may have changed
+     */
+    public void refreshRegions() {
+        refreshBlockedRegions();
+        combatManager.refreshRegionDurations();
+    }
+
+    /**
+     * Rebuilds the blocked region index, used after the blocked list changed
+     */
+    public void refreshBlockedRegions() {
+        if (blockedRegionIndex != null) {
+            blockedRegionIndex.rebuild();
+        }
+    }
+
+    public PluginScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
+    public PluginSettings getSettings() {
+        return settings;
+    }
+
+    public Messages getMessages() {
+        return messages;
+    }
+
+    public CombatAuditLog getAuditLog() {
+        return auditLog;
+    }
+
+    /**
+     * Lets other plugins teach combat tagging about their own damage sources
+     */
+    public DamagerResolver getDamagerResolver() {
+        return damagerResolver;
+    }
+
     public CombatManager getCombatManager() {
         return combatManager;
     }
@@ -164,6 +297,13 @@ public final class BetterCombatLogging extends JavaPlugin {
         return regionManager;
     }
 
+    /**
+     * @return the blocked region index, or null without WorldGuard
+     */
+    public BlockedRegionIndex getBlockedRegionIndex() {
+        return blockedRegionIndex;
+    }
+
     public RegionBorderVisualizer getRegionVisualizer() {
         return regionVisualizer;
     }
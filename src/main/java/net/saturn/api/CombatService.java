@@ -0,0 +1,37 @@
+package net.saturn.api;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only view of BetterCombatLogging's combat state, registered with Bukkit's ServicesManager.
+ * All methods are safe to call from any thread.
+ *
+ * <pre>
+ * CombatService combat = Bukkit.getServicesManager().load(CombatService.class);
+ * </pre>
+ */
+public interface CombatService {
+
+    boolean isInCombat(UUID uuid);
+
+    /**
+     * @return whole seconds left on the tag, or 0 if the player is not in combat
+     */
+    int getRemainingTime(UUID uuid);
+
+    /**
+     * @return the last player that tagged this player, or null if unknown or not in combat
+     */
+    UUID getLastAttacker(UUID uuid);
+
+    /**
+     * @return the configured tag length in seconds
+     */
+    int getCombatDuration();
+
+    /**
+     * @return a snapshot of every currently tagged player
+     */
+    Set<UUID> getTaggedPlayers();
+}
@@ -0,0 +1,93 @@
+package net.saturn.api.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Called once per tick with every player that is about to enter combat during that tick.
+ * Refreshing an existing tag does not fire this event.
+ * Cancel single entries to keep those players out of combat, or the whole event to drop the batch.
+ */
+public class CombatTagEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final List<Entry> entries;
+    private boolean cancelled;
+
+    public CombatTagEvent(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    public static class Entry {
+
+        private final Player player;
+        private final Player attacker;
+        private int durationSeconds;
+        private boolean cancelled;
+
+        public Entry(Player player, Player attacker, int durationSeconds) {
+            this.player = player;
+            this.attacker = attacker;
+            this.durationSeconds = durationSeconds;
+        }
+
+        public Player getPlayer() {
+            return player;
+        }
+
+        /**
+         * @return the player that caused the tag, or null if it was applied by a command or another plugin
+         */
+        public Player getAttacker() {
+            return attacker;
+        }
+
+        /**
+         * @return how long the tag will last, picked by the configured duration policy
+         */
+        public int getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public void setDurationSeconds(int durationSeconds) {
+            this.durationSeconds = Math.max(1, durationSeconds);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+}
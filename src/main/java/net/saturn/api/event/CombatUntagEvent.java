@@ -0,0 +1,101 @@
+package net.saturn.api.event;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Called once per tick with every player that is about to leave combat during that tick.
+ * Cancelling an expired entry re-tags the player for a full combat duration, cancelling any other
+ * entry keeps the current tag.
+ */
+public class CombatUntagEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final List<Entry> entries;
+    private boolean cancelled;
+
+    public CombatUntagEvent(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    public enum Reason {
+        EXPIRED,
+        DEATH,
+        REMOVED
+    }
+
+    public static class Entry {
+
+        private final UUID uniqueId;
+        private final UUID attackerId;
+        private final Reason reason;
+        private boolean cancelled;
+
+        public Entry(UUID uniqueId, UUID attackerId, Reason reason) {
+            this.uniqueId = uniqueId;
+            this.attackerId = attackerId;
+            this.reason = reason;
+        }
+
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        /**
+         * @return the player, or null if they are offline
+         */
+        public Player getPlayer() {
+            return Bukkit.getPlayer(uniqueId);
+        }
+
+        /**
+         * @return the last player that tagged this player, or null if unknown
+         */
+        public UUID getAttackerId() {
+            return attackerId;
+        }
+
+        public Reason getReason() {
+            return reason;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+}
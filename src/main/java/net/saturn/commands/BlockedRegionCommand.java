@@ -1,15 +1,22 @@
 package net.saturn.commands;
 
 import net.saturn.BetterCombatLogging;
+import net.saturn.managers.regions.CombatEntryFlag;
 import net.saturn.managers.regions.RegionManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class BlockedRegionCommand implements CommandExecutor, TabCompleter {
@@ -59,60 +66,93 @@ public class BlockedRegionCommand implements CommandExecutor, TabCompleter {
 
     private boolean handleAdd(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            sender.sendMessage(colorize("&cUsage: /blockedregion add <region>"));
-            sender.sendMessage(colorize("&7Example: /blockedregion add spawn"));
+            sender.sendMessage(colorize("&cUsage: /blockedregion add <region> [world]"));
+            sender.sendMessage(colorize("&7Example: /blockedregion add spawn world"));
             return true;
         }
 
         String regionName = args[1];
+        World world = resolveWorld(sender, args);
+        if (world == null) {
+            return true;
+        }
 
-        if (regionManager.isRegionBlocked(regionName)) {
-            sender.sendMessage(colorize("&cRegion &e" + regionName + " &cis already blocked!"));
+        if (regionManager.isRegionBlocked(world, regionName)) {
+            sender.sendMessage(colorize("&cRegion &e" + regionName + " &cis already blocked in &e" + world.getName() + "&c!"));
             return true;
         }
 
-        regionManager.addRegion(regionName);
-        sender.sendMessage(colorize("&aAdded &e" + regionName + " &ato blocked regions!"));
+        if (!regionManager.addRegion(world, regionName)) {
+            sender.sendMessage(colorize("&cRegion &e" + regionName + " &cdoes not exist in &e" + world.getName() + "&c!"));
+            return true;
+        }
+        sender.sendMessage(colorize("&aAdded &e" + regionName + " &ato blocked regions in &e" + world.getName() + "&a!"));
         sender.sendMessage(colorize("&7Players in combat will not be able to enter this region."));
+        sender.sendMessage(colorize("&7Set as &e" + CombatEntryFlag.NAME + " deny&7, child regions inherit it."));
 
         return true;
     }
 
     private boolean handleRemove(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            sender.sendMessage(colorize("&cUsage: /blockedregion remove <region>"));
-            sender.sendMessage(colorize("&7Example: /blockedregion remove spawn"));
+            sender.sendMessage(colorize("&cUsage: /blockedregion remove <region> [world]"));
+            sender.sendMessage(colorize("&7Example: /blockedregion remove spawn world"));
             return true;
         }
 
         String regionName = args[1];
-
-        if (!regionManager.isRegionBlocked(regionName)) {
-            sender.sendMessage(colorize("&cRegion &e" + regionName + " &cis not currently blocked!"));
+        World world = resolveWorld(sender, args);
+        if (world == null) {
             return true;
         }
 
-        regionManager.removeRegion(regionName);
-        sender.sendMessage(colorize("&aRemoved &e" + regionName + " &afrom blocked regions!"));
+        if (!regionManager.removeRegion(world, regionName)) {
+            sender.sendMessage(colorize("&cRegion &e" + regionName + " &cis not currently blocked in &e" + world.getName() + "&c!"));
+            return true;
+        }
+        sender.sendMessage(colorize("&aRemoved &e" + regionName + " &afrom blocked regions in &e" + world.getName() + "&a!"));
 
         return true;
     }
 
     private boolean handleList(CommandSender sender) {
-        List<String> blockedRegions = regionManager.getBlockedRegions();
+        Map<String, List<String>> blockedRegions = new LinkedHashMap<>();
+        int total = 0;
+        for (World world : Bukkit.getWorlds()) {
+            List<String> regions = regionManager.getBlockedRegions(world);
+            if (!regions.isEmpty()) {
+                blockedRegions.put(world.getName(), regions);
+                total += regions.size();
+            }
+        }
+        Map<String, Set<String>> pending = regionManager.getPendingRegions();
 
-        if (blockedRegions.isEmpty()) {
+        if (total == 0 && pending.isEmpty()) {
             sender.sendMessage(colorize("&eNo regions are currently blocked."));
-            sender.sendMessage(colorize("&7Use &e/blockedregion add <region> &7to block a region."));
+            sender.sendMessage(colorize("&7Use &e/blockedregion add <region> [world] &7to block a region."));
             return true;
         }
 
         sender.sendMessage(colorize("&6&m----------&r &e&lBlocked Regions &6&m----------"));
-        sender.sendMessage(colorize("&7Total: &e" + blockedRegions.size()));
-        sender.sendMessage("");
+        sender.sendMessage(colorize("&7Total: &e" + total));
+
+        for (Map.Entry<String, List<String>> world : blockedRegions.entrySet()) {
+            sender.sendMessage("");
+            sender.sendMessage(colorize("&6" + world.getKey() + "&7:"));
+            for (String region : world.getValue()) {
+                sender.sendMessage(colorize("&8• &e" + region));
+            }
+        }
 
-        for (String region : blockedRegions) {
-            sender.sendMessage(colorize("&8• &e" + region));
+        if (!pending.isEmpty()) {
+            sender.sendMessage("");
+            sender.sendMessage(colorize("&6Waiting for their region to exist &7(from blocked-regions.yml):"));
+            for (Map.Entry<String, Set<String>> world : pending.entrySet()) {
+                String scope = world.getKey() != null ? world.getKey() : "all worlds";
+                for (String region : world.getValue()) {
+                    sender.sendMessage(colorize("&8• &e" + region + " &7in " + scope));
+                }
+            }
         }
 
         sender.sendMessage(colorize("&6&m---------------------------------------"));
@@ -123,7 +163,7 @@ public class BlockedRegionCommand implements CommandExecutor, TabCompleter {
     private boolean handleClear(CommandSender sender) {
         int count = regionManager.getBlockedRegionCount();
 
-        if (count == 0) {
+        if (count == 0 && regionManager.getPendingRegions().isEmpty()) {
             sender.sendMessage(colorize("&cNo regions are currently blocked!"));
             return true;
         }
@@ -136,13 +176,31 @@ public class BlockedRegionCommand implements CommandExecutor, TabCompleter {
 
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(colorize("&6&m----------&r &e&lBlocked Regions &6&m----------"));
-        sender.sendMessage(colorize("&e/blockedregion add <region> &7- Block a region"));
-        sender.sendMessage(colorize("&e/blockedregion remove <region> &7- Unblock a region"));
+        sender.sendMessage(colorize("&e/blockedregion add <region> [world] &7- Block a region"));
+        sender.sendMessage(colorize("&e/blockedregion remove <region> [world] &7- Unblock a region"));
         sender.sendMessage(colorize("&e/blockedregion list &7- List all blocked regions"));
         sender.sendMessage(colorize("&e/blockedregion clear &7- Clear all blocked regions"));
         sender.sendMessage(colorize("&6&m---------------------------------------"));
     }
 
+    /**
+     * @return the world named after the region, defaulting to the sender's own world, or null if there is none
+     */
+    private World resolveWorld(CommandSender sender, String[] args) {
+        if (args.length >= 3) {
+            World world = Bukkit.getWorld(args[2]);
+            if (world == null) {
+                sender.sendMessage(colorize("&cWorld &e" + args[2] + " &cdoes not exist!"));
+            }
+            return world;
+        }
+        if (sender instanceof Player player) {
+            return player.getWorld();
+        }
+        sender.sendMessage(colorize("&cPlease specify a world from the console."));
+        return null;
+    }
+
     private String colorize(String message) {
         return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
     }
@@ -155,7 +213,13 @@ public class BlockedRegionCommand implements CommandExecutor, TabCompleter {
             completions.addAll(Arrays.asList("add", "remove", "list", "clear"));
         } else if (args.length == 2 && args[0].equalsIgnoreCase("remove")) {
             // Suggest currently blocked regions for removal
-            completions.addAll(regionManager.getBlockedRegions());
+            if (sender instanceof Player player) {
+                completions.addAll(regionManager.getBlockedRegions(player.getWorld()));
+            } else {
+                Bukkit.getWorlds().forEach(world -> completions.addAll(regionManager.getBlockedRegions(world)));
+            }
+        } else if (args.length == 3 && (args[0].equalsIgnoreCase("add") || args[0].equalsIgnoreCase("remove"))) {
+            Bukkit.getWorlds().forEach(world -> completions.add(world.getName()));
         }
 
         return completions.stream()
@@ -0,0 +1,32 @@
+package net.saturn.commands;
+
+import net.saturn.BetterCombatLogging;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+public class ReloadCommand implements CommandExecutor {
+
+    private final BetterCombatLogging plugin;
+
+    public ReloadCommand(BetterCombatLogging plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("BetterCombatLogging.admin")) {
+            sender.sendMessage(colorize("&cYou don't have permission to use this command!"));
+            return true;
+        }
+
+        plugin.reloadSettings();
+        sender.sendMessage(colorize("&aBetterCombatLogging configuration reloaded!"));
+
+        return true;
+    }
+
+    private String colorize(String message) {
+        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
+    }
+}
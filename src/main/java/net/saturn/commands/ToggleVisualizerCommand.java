@@ -30,6 +30,7 @@ public class ToggleVisualizerCommand implements CommandExecutor {
 
         plugin.getConfig().set("region-visualizer.enabled", newState);
         plugin.saveConfig();
+        plugin.refreshSettings();
 
         if (newState) {
             if (plugin.getRegionVisualizer() != null) {
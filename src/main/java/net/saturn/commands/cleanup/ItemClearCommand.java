@@ -1,13 +1,11 @@
 package net.saturn.commands.cleanup;
 
 import net.saturn.BetterCombatLogging;
-import org.bukkit.Bukkit;
-import org.bukkit.World;
+import net.saturn.tasks.cleanup.ItemClearTask;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
-import org.bukkit.entity.Item;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -64,19 +62,8 @@ public class ItemClearCommand implements CommandExecutor, TabCompleter {
 
         sender.sendMessage(colorize("&eClearing all items..."));
 
-        int count = 0;
-        for (World world : Bukkit.getWorlds()) {
-            if (!plugin.getConfig().getBoolean("item-clear.worlds." + world.getName() + ".enabled", true)) {
-                continue;
-            }
-
-            for (Item item : world.getEntitiesByClass(Item.class)) {
-                item.remove();
-                count++;
-            }
-        }
-
-        sender.sendMessage(colorize("&aCleared &e" + count + " &aitems from the ground!"));
+        ItemClearTask.clearItems(plugin, count ->
+                sender.sendMessage(colorize("&aCleared &e" + count + " &aitems from the ground!")));
         lastManualClear = currentTime;
         return true;
     }
@@ -87,6 +74,7 @@ public class ItemClearCommand implements CommandExecutor, TabCompleter {
 
         plugin.getConfig().set("item-clear.enabled", newState);
         plugin.saveConfig();
+        plugin.refreshSettings();
 
         if (newState) {
             sender.sendMessage(colorize("&aAutomatic item clearing has been &nenabled&r&a!"));
@@ -127,6 +115,7 @@ public class ItemClearCommand implements CommandExecutor, TabCompleter {
 
         plugin.getConfig().set("item-clear.interval-minutes", minutes);
         plugin.saveConfig();
+        plugin.refreshSettings();
 
         sender.sendMessage(colorize("&aItem clear interval set to &e" + minutes + " minutes"));
         sender.sendMessage(colorize("&7This will take effect after the next server reload."));
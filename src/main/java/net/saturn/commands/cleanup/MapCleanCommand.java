@@ -66,7 +66,7 @@ public class MapCleanCommand implements CommandExecutor, TabCompleter {
 
         // Run cleanup task
         MapCleanupTask cleanupTask = new MapCleanupTask(plugin);
-        cleanupTask.runTask(plugin);
+        cleanupTask.start();
 
         lastCleanup = currentTime;
         return true;
@@ -78,6 +78,7 @@ public class MapCleanCommand implements CommandExecutor, TabCompleter {
 
         plugin.getConfig().set("cleanup.enabled", newState);
         plugin.saveConfig();
+        plugin.refreshSettings();
 
         if (newState) {
             sender.sendMessage(colorize("&aAutomatic map cleanup has been &nenabled&r&a!"));
@@ -118,6 +119,7 @@ public class MapCleanCommand implements CommandExecutor, TabCompleter {
 
         plugin.getConfig().set("cleanup.interval-minutes", minutes);
         plugin.saveConfig();
+        plugin.refreshSettings();
 
         sender.sendMessage(colorize("&aCleanup interval set to &e" + minutes + " minutes"));
         sender.sendMessage(colorize("&7This will take effect after the next server reload."));
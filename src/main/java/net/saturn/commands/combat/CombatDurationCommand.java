@@ -29,7 +29,7 @@ public class CombatDurationCommand implements CommandExecutor, TabCompleter {
         if (args.length == 0) {
             int current = plugin.getConfig().getInt("combat-duration", 15);
             sender.sendMessage(colorize("&eCurrent combat duration: &6" + current + " seconds"));
-            sender.sendMessage(colorize("&7Use: /setcombatduration <seconds>"));
+            sender.sendMessage(colorize("&7Use: /setcombatduration <seconds> [rescale]"));
             return true;
         }
 
@@ -51,11 +51,20 @@ public class CombatDurationCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        boolean rescale = args.length > 1 && args[1].equalsIgnoreCase("rescale");
+        int previous = plugin.getCombatManager().getCombatDuration();
+
         plugin.getConfig().set("combat-duration", seconds);
         plugin.saveConfig();
+        plugin.refreshSettings();
 
         sender.sendMessage(colorize("&aCombat duration set to &e" + seconds + " seconds"));
-        sender.sendMessage(colorize("&7Note: This will apply to new combat tags. Existing combat tags will continue with their original duration."));
+        if (rescale) {
+            plugin.getCombatManager().rescaleTags((double) seconds / previous);
+            sender.sendMessage(colorize("&7Running combat tags using the default duration have been rescaled to it."));
+        } else {
+            sender.sendMessage(colorize("&7Note: This applies to new combat tags right away. Add &erescale &7to also rescale running tags."));
+        }
 
         return true;
     }
@@ -67,6 +76,9 @@ public class CombatDurationCommand implements CommandExecutor, TabCompleter {
                     .filter(s -> s.startsWith(args[0]))
                     .collect(Collectors.toList());
         }
+        if (args.length == 2 && "rescale".startsWith(args[1].toLowerCase())) {
+            return new ArrayList<>(List.of("rescale"));
+        }
         return new ArrayList<>();
     }
 
@@ -1,8 +1,8 @@
 package net.saturn.commands.limitations;
 
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
 import net.saturn.managers.ProtectionManager;
-import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -74,12 +74,7 @@ public class ProtectionLimitCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(colorize("&aGlobal protection limit set to &e" + level));
 
         // Notify all online players
-        String message = plugin.getConfig().getString(
-                "messages.protection-limit-set",
-                "&eProtection enchantment has been limited to level {level} globally!"
-        ).replace("{level}", String.valueOf(level));
-
-        Bukkit.broadcastMessage(colorize(message));
+        plugin.getMessages().broadcast(Message.PROTECTION_LIMIT_SET, level);
 
         return true;
     }
@@ -93,11 +88,7 @@ public class ProtectionLimitCommand implements CommandExecutor, TabCompleter {
         protectionManager.setLimit(0); // 0 removes the limit
         sender.sendMessage(colorize("&aGlobal protection limit removed"));
 
-        String message = plugin.getConfig().getString(
-                "messages.protection-limit-removed",
-                "&eProtection enchantment limit has been removed globally!"
-        );
-        Bukkit.broadcastMessage(colorize(message));
+        plugin.getMessages().broadcast(Message.PROTECTION_LIMIT_REMOVED);
 
         return true;
     }
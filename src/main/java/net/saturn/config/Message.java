@@ -0,0 +1,67 @@
+package net.saturn.config;
+
+/**
+ * Every configurable message, with its config key, fallback text and placeholder order.
+ * Arguments passed to {@link Messages#format(Message, Object...)} fill the placeholders in the order listed here.
+ */
+public enum Message {
+
+    // Combat
+    COMBAT_ENTER("combat-enter", "&cYou are now in combat!"),
+    COMBAT_EXIT("combat-exit", "&aYou are no longer in combat!"),
+    COMBAT_LOGOUT("combat-logout", "&e{player} &clogged out during combat!", "player"),
+    BOSS_BAR("boss-bar", "&c⚔ Combat: {time}s", "time"),
+
+    // Regions
+    REGION_BLOCKED("region-blocked", "&cYou cannot enter this region while in combat! &7({time}s remaining)", "time"),
+    REGION_EJECTED("region-ejected", "&cYou were ejected from a blocked region! &7({time}s remaining)", "time"),
+    VISUALIZER_BLOCKED("visualizer-blocked", "&cDon't try to break through the barrier! &7({time}s remaining)", "time"),
+    VEHICLE_BLOCKED("vehicle-blocked", "&cYou cannot enter this region in a vehicle while in combat! &7({time}s remaining)", "time"),
+
+    // Cleanup
+    ITEM_CLEAR_WARNING("item-clear-warning", "&eItems will be cleared in {time} seconds!", "time"),
+    ITEM_CLEAR_COMPLETE("item-clear-complete", "&aCleared {count} items from the ground!", "count"),
+    CLEANUP_COMPLETE("cleanup-complete", "&a✔ Map cleanup completed in {world}! Removed {count} blocks.", "world", "count"),
+
+    // Protection limits
+    PROTECTION_LIMITED("protection-limited", "&eYour item's Protection enchantment has been limited to the maximum allowed level."),
+    PROTECTION_LIMIT_SET("protection-limit-set", "&eProtection enchantment has been limited to level {level} globally!", "level"),
+    PROTECTION_LIMIT_REMOVED("protection-limit-removed", "&eProtection enchantment limit has been removed globally!"),
+
+    // Item limiter
+    ITEM_BANNED("item-banned", "&e{item} &chas been completely banned!", "item"),
+    ITEM_LIMITED_QUANTITY("item-limited-quantity", "&e{item} &chas been limited to &6{quantity} &citems!", "item", "quantity"),
+    ITEM_LIMIT_REMOVED("item-limit-removed", "&e{item} &ais no longer limited!", "item"),
+    ALL_ITEM_LIMITS_REMOVED("all-item-limits-removed", "&aAll item limitations have been removed!"),
+    ITEM_PARTIAL_PICKUP("item-partial-pickup", "&eAdded &6{amount} &e{item} &7(max: {limit})", "item", "amount", "limit"),
+    ITEM_BLOCKED_PLACE_BANNED("item-blocked-place-banned", "&cYou cannot have &e{item}&c!", "item", "limit"),
+    ITEM_BLOCKED_PLACE_LIMIT("item-blocked-place-limit", "&cYou cannot have &e{item}&c!", "item", "limit"),
+    ITEM_BLOCKED_TRADE_BANNED("item-blocked-trade-banned", "&cYou cannot trade for &e{item}&c - it is banned!", "item"),
+    ITEM_BLOCKED_TRADE_LIMIT("item-blocked-trade-limit", "&cYou cannot trade for &e{item}&c - you already have the maximum ({limit})!", "item", "limit"),
+    ITEM_BLOCKED_TRADE_PARTIAL("item-blocked-trade-partial", "&cThis trade would exceed your limit! You can only have &6{remaining} &cmore &e{item}&c (limit: {limit})", "item", "remaining", "limit"),
+    ITEMS_DROPPED_LOGIN("items-dropped-login", "&eDropped &6{count} &elimited items at your feet!", "count"),
+    ITEMS_DROPPED_EXCESS("items-dropped-excess", "&eDropped &6{amount} &e{item} &7(limit: {limit})", "amount", "item", "limit"),
+    ITEMS_DROPPED_EXCESS_ALL("items-dropped-excess-all", "&eDropped &6{count} &eexcess limited items at your feet!", "count");
+
+    private final String path;
+    private final String defaultText;
+    private final String[] placeholders;
+
+    Message(String key, String defaultText, String... placeholders) {
+        this.path = "messages." + key;
+        this.defaultText = defaultText;
+        this.placeholders = placeholders;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getDefaultText() {
+        return defaultText;
+    }
+
+    String[] getPlaceholders() {
+        return placeholders;
+    }
+}
@@ -0,0 +1,100 @@
+package net.saturn.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message compiled once from config: color codes are translated up front and the text is split
+ * into literal parts around placeholder slots, so formatting is a single StringBuilder pass.
+ */
+public final class MessageTemplate {
+
+    private final String[] literals; // literals[i] precedes slot i, the last literal trails the message
+    private final int[] slots; // Argument index for each placeholder occurrence
+    private final String constant; // Fully rendered text when the message has no placeholders
+    private final int baseLength;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.constant = slots.length == 0 ? literals[0] : null;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.baseLength = length;
+    }
+
+    /**
+     * Compiles raw config text
+     * @param raw Text using '&' color codes
+     * @param placeholders Placeholder names, in argument order
+     */
+    public static MessageTemplate compile(String raw, String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            if (c == '{') {
+                int close = raw.indexOf('}', i + 1);
+                int slot = close > 0 ? indexOf(placeholders, raw, i + 1, close) : -1;
+                if (slot >= 0) {
+                    literals.add(colorize(literal.toString()));
+                    slots.add(slot);
+                    literal.setLength(0);
+                    i = close + 1;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(colorize(literal.toString()));
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) {
+            slotArray[s] = slots.get(s);
+        }
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray);
+    }
+
+    public String format(Object... args) {
+        if (constant != null) {
+            return constant;
+        }
+
+        StringBuilder out = new StringBuilder(baseLength + slots.length * 8);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            int slot = slots[i];
+            if (slot < args.length) {
+                out.append(args[slot]);
+            }
+        }
+        out.append(literals[slots.length]);
+        return out.toString();
+    }
+
+    public boolean isEmpty() {
+        return constant != null && constant.isEmpty();
+    }
+
+    private static int indexOf(String[] placeholders, String raw, int start, int end) {
+        int length = end - start;
+        for (int p = 0; p < placeholders.length; p++) {
+            String name = placeholders[p];
+            if (name.length() == length && raw.regionMatches(start, name, 0, length)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private static String colorize(String message) {
+        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
+    }
+}
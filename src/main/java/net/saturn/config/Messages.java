@@ -0,0 +1,46 @@
+package net.saturn.config;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds the compiled templates for every {@link Message}.
+ * Templates are rebuilt only when the config is (re)loaded, sending never touches the config tree.
+ */
+public class Messages {
+
+    private volatile Map<Message, MessageTemplate> templates;
+
+    public Messages(FileConfiguration config) {
+        load(config);
+    }
+
+    public void load(FileConfiguration config) {
+        Map<Message, MessageTemplate> compiled = new EnumMap<>(Message.class);
+        for (Message message : Message.values()) {
+            String raw = config.getString(message.getPath(), message.getDefaultText());
+            compiled.put(message, MessageTemplate.compile(raw, message.getPlaceholders()));
+        }
+        this.templates = compiled;
+    }
+
+    public MessageTemplate get(Message message) {
+        return templates.get(message);
+    }
+
+    public String format(Message message, Object... args) {
+        return templates.get(message).format(args);
+    }
+
+    public void send(CommandSender sender, Message message, Object... args) {
+        sender.sendMessage(format(message, args));
+    }
+
+    public void broadcast(Message message, Object... args) {
+        Bukkit.broadcastMessage(format(message, args));
+    }
+}
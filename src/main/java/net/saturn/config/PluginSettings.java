@@ -0,0 +1,88 @@
+package net.saturn.config;
+
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the settings read on hot paths.
+ * Built once per load/reload and swapped as a whole, so gameplay code never parses config paths.
+ */
+public record PluginSettings(
+        int combatDuration,
+        boolean pvpCombatEnabled,
+        boolean broadcastCombatLog,
+        boolean killCreditStrongest,
+        boolean bossBarSmoothProgress,
+        boolean auditLogEnabled,
+        int auditLogBufferSize,
+        int auditLogMaxFileSizeMb,
+        int auditLogMaxFiles,
+        boolean visualizerEnabled,
+        int visualizerDistance,
+        int visualizerVerticalRange,
+        boolean cleanupEnabled,
+        int cleanupIntervalMinutes,
+        boolean cleanupBroadcast,
+        Set<String> cleanupDisabledWorlds,
+        boolean itemClearEnabled,
+        int itemClearIntervalMinutes,
+        boolean itemClearAnnounceWarning,
+        int itemClearWarningSeconds,
+        boolean itemClearAnnounceClear,
+        Set<String> itemClearDisabledWorlds
+) {
+
+    public static PluginSettings load(FileConfiguration config) {
+        return new PluginSettings(
+                config.getInt("combat-duration", 15),
+                config.getBoolean("enable-pvp-combat", true),
+                config.getBoolean("broadcast-combat-log", true),
+                "strongest".equalsIgnoreCase(config.getString("combat-log-kill-credit", "last")),
+                config.getBoolean("boss-bar.smooth-progress", false),
+                config.getBoolean("audit-log.enabled", true),
+                config.getInt("audit-log.buffer-size", 8192),
+                config.getInt("audit-log.max-file-size-mb", 16),
+                config.getInt("audit-log.max-files", 20),
+                config.getBoolean("region-visualizer.enabled", true),
+                config.getInt("region-visualizer.distance", 15),
+                config.getInt("region-visualizer.vertical-range", 5),
+                config.getBoolean("cleanup.enabled", true),
+                config.getInt("cleanup.interval-minutes", 30),
+                config.getBoolean("cleanup.broadcast-cleanup", true),
+                disabledWorlds(config.getConfigurationSection("cleanup.worlds")),
+                config.getBoolean("item-clear.enabled", true),
+                config.getInt("item-clear.interval-minutes", 20),
+                config.getBoolean("item-clear.announce-warning", true),
+                config.getInt("item-clear.warning-seconds", 30),
+                config.getBoolean("item-clear.announce-clear", true),
+                disabledWorlds(config.getConfigurationSection("item-clear.worlds"))
+        );
+    }
+
+    public boolean isCleanupEnabled(World world) {
+        return !cleanupDisabledWorlds.contains(world.getName());
+    }
+
+    public boolean isItemClearEnabled(World world) {
+        return !itemClearDisabledWorlds.contains(world.getName());
+    }
+
+    /**
+     * Worlds default to enabled, so only the explicitly disabled ones need to be remembered
+     */
+    private static Set<String> disabledWorlds(ConfigurationSection worlds) {
+        Set<String> disabled = new HashSet<>();
+        if (worlds != null) {
+            for (String world : worlds.getKeys(false)) {
+                if (!worlds.getBoolean(world + ".enabled", true)) {
+                    disabled.add(world);
+                }
+            }
+        }
+        return Set.copyOf(disabled);
+    }
+}
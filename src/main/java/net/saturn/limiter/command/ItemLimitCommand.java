@@ -1,8 +1,8 @@
 package net.saturn.limiter.command;
 
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
 import net.saturn.limiter.manager.ItemLimitManager;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -109,21 +109,12 @@ public class ItemLimitCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage(colorize("&aCompletely banned &e" + formatMaterialName(material) + "&a!"));
             sender.sendMessage(colorize("&7Players cannot obtain this item at all."));
 
-            String message = plugin.getConfig().getString(
-                    "messages.item-banned",
-                    "&e{item} &chas been completely banned!"
-            ).replace("{item}", formatMaterialName(material));
-            Bukkit.broadcastMessage(colorize(message));
+            plugin.getMessages().broadcast(Message.ITEM_BANNED, formatMaterialName(material));
         } else {
             sender.sendMessage(colorize("&aLimited &e" + formatMaterialName(material) + " &ato &6" + maxQuantity + " &aitems!"));
             sender.sendMessage(colorize("&7Players can have a maximum of " + maxQuantity + " of this item."));
 
-            String message = plugin.getConfig().getString(
-                            "messages.item-limited-quantity",
-                            "&e{item} &chas been limited to &6{quantity} &citems!"
-                    ).replace("{item}", formatMaterialName(material))
-                    .replace("{quantity}", String.valueOf(maxQuantity));
-            Bukkit.broadcastMessage(colorize(message));
+            plugin.getMessages().broadcast(Message.ITEM_LIMITED_QUANTITY, formatMaterialName(material), maxQuantity);
         }
 
         return true;
@@ -154,11 +145,7 @@ public class ItemLimitCommand implements CommandExecutor, TabCompleter {
         itemLimitManager.removeItem(material);
         sender.sendMessage(colorize("&aRemoved limit on &e" + formatMaterialName(material) + "&a!"));
 
-        String message = plugin.getConfig().getString(
-                "messages.item-limit-removed",
-                "&e{item} &ais no longer limited!"
-        ).replace("{item}", formatMaterialName(material));
-        Bukkit.broadcastMessage(colorize(message));
+        plugin.getMessages().broadcast(Message.ITEM_LIMIT_REMOVED, formatMaterialName(material));
 
         return true;
     }
@@ -234,11 +221,7 @@ public class ItemLimitCommand implements CommandExecutor, TabCompleter {
         itemLimitManager.clearItems();
         sender.sendMessage(colorize("&aCleared all &e" + count + " &alimited items!"));
 
-        String message = plugin.getConfig().getString(
-                "messages.all-item-limits-removed",
-                "&aAll item limitations have been removed!"
-        );
-        Bukkit.broadcastMessage(colorize(message));
+        plugin.getMessages().broadcast(Message.ALL_ITEM_LIMITS_REMOVED);
 
         return true;
     }
@@ -1,6 +1,8 @@
 package net.saturn.limiter.listener;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
 import net.saturn.limiter.manager.ItemLimitManager;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -14,13 +16,12 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 
 public class ItemLimitListener implements Listener {
 
     private final BetterCombatLogging plugin;
     private final ItemLimitManager itemLimitManager;
-    private BukkitRunnable periodicCheckTask;
+    private ScheduledTask periodicCheckTask;
 
     public ItemLimitListener(BetterCombatLogging plugin, ItemLimitManager itemLimitManager) {
         this.plugin = plugin;
@@ -34,23 +35,21 @@ public class ItemLimitListener implements Listener {
      */
     private void startPeriodicCheck() {
         // Run every 5 seconds (100 ticks) to check all players for excess items
-        periodicCheckTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!plugin.isEnabled()) {
-                    cancel();
-                    return;
-                }
+        periodicCheckTask = plugin.getTaskScheduler().runGlobalTimer(() -> {
+            if (!plugin.isEnabled()) {
+                stopPeriodicCheck();
+                return;
+            }
 
-                // Check all online players for excess items
-                for (Player player : plugin.getServer().getOnlinePlayers()) {
-                    if (player != null && player.isOnline()) {
+            // Check all online players for excess items, each on the thread that owns them
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                plugin.getTaskScheduler().executeAtEntity(player, () -> {
+                    if (player.isOnline()) {
                         checkAndDropAllExcess(player);
                     }
-                }
+                });
             }
-        };
-        periodicCheckTask.runTaskTimer(plugin, 100L, 100L); // Start after 5 seconds, then every 5 seconds
+        }, 100L, 100L); // Start after 5 seconds, then every 5 seconds
     }
 
     /**
@@ -389,23 +388,20 @@ public class ItemLimitListener implements Listener {
             int canTransfer = limit - current;
 
             // Schedule the partial transfer for next tick
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!player.isOnline()) return;
+            plugin.getTaskScheduler().runAtEntity(player, () -> {
+                if (!player.isOnline()) return;
 
-                    // Remove from source
-                    clicked.setAmount(clicked.getAmount() - canTransfer);
+                // Remove from source
+                clicked.setAmount(clicked.getAmount() - canTransfer);
 
-                    // Add to player inventory
-                    ItemStack toAdd = clicked.clone();
-                    toAdd.setAmount(canTransfer);
-                    playerInv.addItem(toAdd);
+                // Add to player inventory
+                ItemStack toAdd = clicked.clone();
+                toAdd.setAmount(canTransfer);
+                playerInv.addItem(toAdd);
 
-                    player.updateInventory();
-                    sendPartialMessage(player, material, canTransfer, limit);
-                }
-            }.runTask(plugin);
+                player.updateInventory();
+                sendPartialMessage(player, material, canTransfer, limit);
+            });
         }
     }
 
@@ -420,26 +416,20 @@ public class ItemLimitListener implements Listener {
         if (cursor == null || cursor.getType() == Material.AIR) {
             // No item on cursor, but check for excess items in inventory
             // This catches items added via /give or other means
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!player.isOnline()) return;
-                    checkAndDropAllExcess(player);
-                }
-            }.runTask(plugin);
+            plugin.getTaskScheduler().runAtEntity(player, () -> {
+                if (!player.isOnline()) return;
+                checkAndDropAllExcess(player);
+            });
             return;
         }
 
         Material material = cursor.getType();
         if (!itemLimitManager.isItemLimited(material)) {
             // Check for other excess items even if cursor item isn't limited
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!player.isOnline()) return;
-                    checkAndDropAllExcess(player);
-                }
-            }.runTask(plugin);
+            plugin.getTaskScheduler().runAtEntity(player, () -> {
+                if (!player.isOnline()) return;
+                checkAndDropAllExcess(player);
+            });
             return;
         }
 
@@ -453,13 +443,10 @@ public class ItemLimitListener implements Listener {
         }
 
         // Also check for excess items in inventory after handling cursor
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) return;
-                checkAndDropAllExcess(player);
-            }
-        }.runTask(plugin);
+        plugin.getTaskScheduler().runAtEntity(player, () -> {
+            if (!player.isOnline()) return;
+            checkAndDropAllExcess(player);
+        });
     }
 
     /* ============================================================
@@ -493,26 +480,18 @@ public class ItemLimitListener implements Listener {
     public void onJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) return;
+        plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+            if (!player.isOnline()) return;
 
-                int dropped = 0;
-                for (Material mat : itemLimitManager.getLimitedItems().keySet()) {
-                    dropped += itemLimitManager.dropExcess(player, mat);
-                }
+            int dropped = 0;
+            for (Material mat : itemLimitManager.getLimitedItems().keySet()) {
+                dropped += itemLimitManager.dropExcess(player, mat);
+            }
 
-                if (dropped > 0) {
-                    player.sendMessage(colorize(
-                            plugin.getConfig().getString(
-                                    "messages.items-dropped-login",
-                                    "&eDropped &6{count} &elimited items at your feet!"
-                            ).replace("{count}", String.valueOf(dropped))
-                    ));
-                }
+            if (dropped > 0) {
+                plugin.getMessages().send(player, Message.ITEMS_DROPPED_LOGIN, dropped);
             }
-        }.runTaskLater(plugin, 20L);
+        }, 20L);
     }
 
     /* ============================================================
@@ -526,52 +505,46 @@ public class ItemLimitListener implements Listener {
     }
 
     private void handlePartialTransferFromContainer(Player player, InventoryClickEvent event, Material material, int canAdd) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) return;
+        plugin.getTaskScheduler().runAtEntity(player, () -> {
+            if (!player.isOnline()) return;
 
-                ItemStack source = event.getCurrentItem();
-                if (source == null) return;
+            ItemStack source = event.getCurrentItem();
+            if (source == null) return;
 
-                // Take what we can from the source
-                int remaining = source.getAmount() - canAdd;
-                source.setAmount(remaining);
+            // Take what we can from the source
+            int remaining = source.getAmount() - canAdd;
+            source.setAmount(remaining);
 
-                // Add to player inventory
-                ItemStack toAdd = source.clone();
-                toAdd.setAmount(canAdd);
-                player.getInventory().addItem(toAdd);
+            // Add to player inventory
+            ItemStack toAdd = source.clone();
+            toAdd.setAmount(canAdd);
+            player.getInventory().addItem(toAdd);
 
-                player.updateInventory();
-                sendPartialMessage(player, material, canAdd, itemLimitManager.getLimit(material));
-            }
-        }.runTask(plugin);
+            player.updateInventory();
+            sendPartialMessage(player, material, canAdd, itemLimitManager.getLimit(material));
+        });
     }
 
     private void handlePartialTransferFromCursor(Player player, ItemStack cursor, Material material, int canAdd) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) return;
+        plugin.getTaskScheduler().runAtEntity(player, () -> {
+            if (!player.isOnline()) return;
 
-                // Add what we can to inventory
-                ItemStack toAdd = cursor.clone();
-                toAdd.setAmount(canAdd);
-                player.getInventory().addItem(toAdd);
+            // Add what we can to inventory
+            ItemStack toAdd = cursor.clone();
+            toAdd.setAmount(canAdd);
+            player.getInventory().addItem(toAdd);
 
-                // Drop the rest
-                ItemStack toDrop = cursor.clone();
-                toDrop.setAmount(cursor.getAmount() - canAdd);
-                player.getWorld().dropItemNaturally(player.getLocation(), toDrop);
+            // Drop the rest
+            ItemStack toDrop = cursor.clone();
+            toDrop.setAmount(cursor.getAmount() - canAdd);
+            player.getWorld().dropItemNaturally(player.getLocation(), toDrop);
 
-                // Clear cursor
-                player.setItemOnCursor(null);
-                player.updateInventory();
+            // Clear cursor
+            player.setItemOnCursor(null);
+            player.updateInventory();
 
-                sendPartialMessage(player, material, canAdd, itemLimitManager.getLimit(material));
-            }
-        }.runTask(plugin);
+            sendPartialMessage(player, material, canAdd, itemLimitManager.getLimit(material));
+        });
     }
 
     private void dropCursorSafe(Player player) {
@@ -581,12 +554,9 @@ public class ItemLimitListener implements Listener {
         ItemStack drop = cursor.clone();
         player.setItemOnCursor(null);
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                player.getWorld().dropItemNaturally(player.getLocation(), drop);
-            }
-        }.runTask(plugin);
+        plugin.getTaskScheduler().runAtEntity(player, () -> {
+            player.getWorld().dropItemNaturally(player.getLocation(), drop);
+        });
     }
 
     /**
@@ -599,15 +569,7 @@ public class ItemLimitListener implements Listener {
         int dropped = itemLimitManager.dropExcess(player, material);
         if (dropped > 0) {
             int limit = itemLimitManager.getLimit(material);
-            player.sendMessage(colorize(
-                    plugin.getConfig().getString(
-                            "messages.items-dropped-excess",
-                            "&eDropped &6{amount} &e{item} &7(limit: {limit})"
-                    )
-                            .replace("{amount}", String.valueOf(dropped))
-                            .replace("{item}", format(material))
-                            .replace("{limit}", String.valueOf(limit))
-            ));
+            plugin.getMessages().send(player, Message.ITEMS_DROPPED_EXCESS, dropped, format(material), limit);
             player.updateInventory();
         }
     }
@@ -623,39 +585,19 @@ public class ItemLimitListener implements Listener {
         }
 
         if (totalDropped > 0) {
-            player.sendMessage(colorize(
-                    plugin.getConfig().getString(
-                            "messages.items-dropped-excess-all",
-                            "&eDropped &6{count} &eexcess limited items at your feet!"
-                    ).replace("{count}", String.valueOf(totalDropped))
-            ));
+            plugin.getMessages().send(player, Message.ITEMS_DROPPED_EXCESS_ALL, totalDropped);
             player.updateInventory();
         }
     }
 
     private void sendBlockedMessage(Player player, Material material, int limit) {
-        player.sendMessage(colorize(
-                plugin.getConfig().getString(
-                                limit == 0
-                                        ? "messages.item-blocked-place-banned"
-                                        : "messages.item-blocked-place-limit",
-                                "&cYou cannot have &e{item}&c!"
-                        )
-                        .replace("{item}", format(material))
-                        .replace("{limit}", String.valueOf(limit))
-        ));
+        plugin.getMessages().send(player,
+                limit == 0 ? Message.ITEM_BLOCKED_PLACE_BANNED : Message.ITEM_BLOCKED_PLACE_LIMIT,
+                format(material), limit);
     }
 
     private void sendPartialMessage(Player player, Material material, int added, int limit) {
-        player.sendMessage(colorize(
-                plugin.getConfig().getString(
-                                "messages.item-partial-pickup",
-                                "&eAdded &6{amount} &e{item} &7(max: {limit})"
-                        )
-                        .replace("{item}", format(material))
-                        .replace("{amount}", String.valueOf(added))
-                        .replace("{limit}", String.valueOf(limit))
-        ));
+        plugin.getMessages().send(player, Message.ITEM_PARTIAL_PICKUP, format(material), added, limit);
     }
 
     private String format(Material material) {
@@ -668,8 +610,4 @@ public class ItemLimitListener implements Listener {
         }
         return out.toString().trim();
     }
-
-    private String colorize(String msg) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', msg);
-    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package net.saturn.limiter.listener;
 
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
 import net.saturn.limiter.manager.ItemLimitManager;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -56,11 +57,7 @@ public class VillagerTradeListener implements Listener {
         if (limit == 0) {
             event.setCancelled(true);
 
-            String message = plugin.getConfig().getString(
-                    "messages.item-blocked-trade-banned",
-                    "&cYou cannot trade for &e{item}&c - it is banned!"
-            ).replace("{item}", formatItemName(result));
-            player.sendMessage(colorize(message));
+            plugin.getMessages().send(player, Message.ITEM_BLOCKED_TRADE_BANNED, formatItemName(result));
             return;
         }
 
@@ -72,25 +69,14 @@ public class VillagerTradeListener implements Listener {
             // Already at or over limit
             event.setCancelled(true);
 
-            String message = plugin.getConfig().getString(
-                            "messages.item-blocked-trade-limit",
-                            "&cYou cannot trade for &e{item}&c - you already have the maximum ({limit})!"
-                    ).replace("{item}", formatItemName(result))
-                    .replace("{limit}", String.valueOf(limit));
-            player.sendMessage(colorize(message));
+            plugin.getMessages().send(player, Message.ITEM_BLOCKED_TRADE_LIMIT, formatItemName(result), limit);
             return;
         } else if (currentCount + tradeAmount > limit) {
             // Trade would exceed limit
             event.setCancelled(true);
 
             int canTrade = limit - currentCount;
-            String message = plugin.getConfig().getString(
-                            "messages.item-blocked-trade-partial",
-                            "&cThis trade would exceed your limit! You can only have &6{remaining} &cmore &e{item}&c (limit: {limit})"
-                    ).replace("{item}", formatItemName(result))
-                    .replace("{remaining}", String.valueOf(canTrade))
-                    .replace("{limit}", String.valueOf(limit));
-            player.sendMessage(colorize(message));
+            plugin.getMessages().send(player, Message.ITEM_BLOCKED_TRADE_PARTIAL, formatItemName(result), canTrade, limit);
             return;
         }
 
@@ -116,8 +102,4 @@ public class VillagerTradeListener implements Listener {
 
         return formatted.toString();
     }
-
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
-    }
 }
\ No newline at end of file
@@ -24,6 +24,14 @@ public class ItemLimitManager {
         this.dataFile = new File(plugin.getDataFolder(), "limited-items.yml");
     }
 
+    /**
+     * Detached manager over a fixed limit table, used by the benchmarks. Cannot load or save.
+     */
+    ItemLimitManager(Map<Material, Integer> limitedItems) {
+        this.plugin = null;
+        this.limitedItems = new HashMap<>(limitedItems);
+    }
+
     public void load() {
         if (!dataFile.exists()) {
             try {
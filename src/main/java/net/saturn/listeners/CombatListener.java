@@ -1,60 +1,61 @@
 package net.saturn.listeners;
 
 import net.saturn.BetterCombatLogging;
+import net.saturn.api.event.CombatUntagEvent;
+import net.saturn.config.Message;
 import net.saturn.managers.CombatManager;
-import org.bukkit.Bukkit;
+import net.saturn.managers.combat.DamagerResolver;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.Projectile;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 public class CombatListener implements Listener {
 
     private final BetterCombatLogging plugin;
     private final CombatManager combatManager;
+    private final DamagerResolver damagerResolver;
 
-    public CombatListener(BetterCombatLogging plugin, CombatManager combatManager) {
+    public CombatListener(BetterCombatLogging plugin, CombatManager combatManager, DamagerResolver damagerResolver) {
         this.plugin = plugin;
         this.combatManager = combatManager;
+        this.damagerResolver = damagerResolver;
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerDamage(EntityDamageByEntityEvent event) {
+    public void onPlayerDamage(EntityDamageEvent event) {
         if (!(event.getEntity() instanceof Player)) {
             return;
         }
 
-        Player victim = (Player) event.getEntity();
-        Player attacker = null;
-
-        // Direct damage from player
-        if (event.getDamager() instanceof Player) {
-            attacker = (Player) event.getDamager();
-        }
-        // Damage from projectile
-        else if (event.getDamager() instanceof Projectile) {
-            Projectile projectile = (Projectile) event.getDamager();
-            if (projectile.getShooter() instanceof Player) {
-                attacker = (Player) projectile.getShooter();
-            }
+        // Check if PvP is disabled in config
+        if (!plugin.getSettings().pvpCombatEnabled()) {
+            return;
         }
 
+        // Direct hits, projectiles, explosives, clouds, pets and player-placed hazards
+        Player victim = (Player) event.getEntity();
+        Player attacker = damagerResolver.resolve(event);
+
         if (attacker == null || attacker.equals(victim)) {
             return;
         }
 
-        // Check if PvP is disabled in config
-        if (!plugin.getConfig().getBoolean("enable-pvp-combat", true)) {
-            return;
-        }
+        combatManager.recordDamage(victim, attacker, event.getFinalDamage());
+        plugin.getAuditLog().recordHit(victim, attacker, event.getFinalDamage());
 
         // Tag both players
-        combatManager.tagPlayer(victim);
-        combatManager.tagPlayer(attacker);
+        combatManager.tagPlayers(victim, attacker, event.getCause());
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        // Tags restored from the journal, or still running from before a quick reconnect
+        combatManager.handleJoin(event.getPlayer());
     }
 
     @EventHandler
@@ -62,14 +63,22 @@ public class CombatListener implements Listener {
         Player player = event.getPlayer();
 
         if (combatManager.isInCombat(player)) {
+            // Credit the kill to whoever earned it, so the death event, statistics and rewards see a real killer
+            Player killer = combatManager.findKiller(player);
+            if (killer != null) {
+                player.setKiller(killer);
+            }
+
+            plugin.getAuditLog().recordCombatLog(player,
+                    killer != null ? killer.getUniqueId() : combatManager.getLastAttacker(player.getUniqueId()),
+                    combatManager.getRemainingTime(player));
+
             // Kill the player
             player.setHealth(0.0);
 
             // Broadcast message
-            if (plugin.getConfig().getBoolean("broadcast-combat-log", true)) {
-                String message = plugin.getConfig().getString("messages.combat-logout", "&e{player} &clogged out during combat!")
-                        .replace("{player}", player.getName());
-                Bukkit.broadcastMessage(colorize(message));
+            if (plugin.getSettings().broadcastCombatLog()) {
+                plugin.getMessages().broadcast(Message.COMBAT_LOGOUT, player.getName());
             }
         }
     }
@@ -80,11 +89,8 @@ public class CombatListener implements Listener {
 
         // Remove combat tag on death
         if (combatManager.isInCombat(player)) {
-            combatManager.removeTag(player);
+            plugin.getAuditLog().recordDeath(player, player.getKiller());
+            combatManager.removeTag(player, CombatUntagEvent.Reason.DEATH);
         }
     }
-
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
-    }
 }
\ No newline at end of file
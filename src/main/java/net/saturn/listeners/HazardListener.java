@@ -0,0 +1,158 @@
+package net.saturn.listeners;
+
+import net.saturn.managers.combat.DamagerResolver;
+import net.saturn.managers.combat.HazardOwnerCache;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.EnderCrystal;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.entity.minecart.ExplosiveMinecart;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityCombustByBlockEvent;
+import org.bukkit.event.entity.EntityCombustByEntityEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityPlaceEvent;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+import java.util.UUID;
+
+/**
+ * Remembers who set up hazards that hurt players later, so the damage can be traced back to them for tagging
+ */
+public class HazardListener implements Listener {
+
+    private static final long BLOCK_TTL_MS = 60_000L; // Placed lava, fire, TNT, beds and anchors
+    private static final long ENTITY_TTL_MS = 30_000L; // Crystals, TNT minecarts, primed TNT
+    private static final long BURNING_TTL_MS = 10_000L; // Longer than any fire aspect or flame burn
+
+    private final HazardOwnerCache hazards;
+    private final DamagerResolver damagerResolver;
+
+    public HazardListener(HazardOwnerCache hazards, DamagerResolver damagerResolver) {
+        this.hazards = hazards;
+        this.damagerResolver = damagerResolver;
+    }
+
+    /* ============================================================
+       PLACED BLOCKS
+       ============================================================ */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        Material type = event.getBlockPlaced().getType();
+        if (type == Material.TNT || type == Material.RESPAWN_ANCHOR || Tag.BEDS.isTagged(type)) {
+            remember(event.getBlockPlaced(), event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        if (event.getBucket() == Material.LAVA_BUCKET) {
+            remember(event.getBlock(), event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        if (event.getPlayer() != null) {
+            remember(event.getBlock(), event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInteract(PlayerInteractEvent event) {
+        Block block = event.getClickedBlock();
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK || block == null) {
+            return;
+        }
+
+        // Whoever triggers an exploding bed or anchor owns the explosion, not whoever placed it
+        World.Environment environment = block.getWorld().getEnvironment();
+        boolean explodingBed = Tag.BEDS.isTagged(block.getType()) && environment != World.Environment.NORMAL;
+        boolean explodingAnchor = block.getType() == Material.RESPAWN_ANCHOR && environment != World.Environment.NETHER;
+        if (explodingBed || explodingAnchor) {
+            remember(block, event.getPlayer());
+        }
+    }
+
+    /* ============================================================
+       EXPLOSIVE ENTITIES
+       ============================================================ */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityPlace(EntityPlaceEvent event) {
+        Entity entity = event.getEntity();
+        if (event.getPlayer() != null && (entity instanceof EnderCrystal || entity instanceof ExplosiveMinecart)) {
+            hazards.put(entity.getUniqueId(), event.getPlayer().getUniqueId(), ENTITY_TTL_MS);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTntSpawn(EntitySpawnEvent event) {
+        if (!(event.getEntity() instanceof TNTPrimed)) {
+            return;
+        }
+
+        // Redstone-primed TNT has no source, fall back to whoever placed the block
+        TNTPrimed tnt = (TNTPrimed) event.getEntity();
+        if (tnt.getSource() == null) {
+            UUID owner = hazards.get(HazardOwnerCache.blockKey(tnt.getLocation()));
+            if (owner != null) {
+                hazards.put(tnt.getUniqueId(), owner, ENTITY_TTL_MS);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onExplosiveDamaged(EntityDamageByEntityEvent event) {
+        Entity entity = event.getEntity();
+        if (!(entity instanceof EnderCrystal) && !(entity instanceof ExplosiveMinecart)) {
+            return;
+        }
+
+        // Hitting a crystal or TNT minecart sets it off, the hitter owns the explosion
+        Player detonator = damagerResolver.resolve(event.getDamager());
+        if (detonator != null) {
+            hazards.put(entity.getUniqueId(), detonator.getUniqueId(), ENTITY_TTL_MS);
+        }
+    }
+
+    /* ============================================================
+       FIRE
+       ============================================================ */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCombustByEntity(EntityCombustByEntityEvent event) {
+        // Fire aspect, flame arrows and fire charges
+        Player igniter = damagerResolver.resolve(event.getCombuster());
+        if (igniter != null && !igniter.equals(event.getEntity())) {
+            hazards.put(HazardOwnerCache.burningKey(event.getEntity().getUniqueId()), igniter.getUniqueId(), BURNING_TTL_MS);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCombustByBlock(EntityCombustByBlockEvent event) {
+        // Walking into placed lava or fire keeps burning after leaving it
+        Block combuster = event.getCombuster();
+        if (combuster == null) {
+            return;
+        }
+
+        UUID owner = hazards.get(HazardOwnerCache.blockKey(combuster));
+        if (owner != null && !owner.equals(event.getEntity().getUniqueId())) {
+            hazards.put(HazardOwnerCache.burningKey(event.getEntity().getUniqueId()), owner, BURNING_TTL_MS);
+        }
+    }
+
+    private void remember(Block block, Player owner) {
+        hazards.put(HazardOwnerCache.blockKey(block), owner.getUniqueId(), BLOCK_TTL_MS);
+    }
+}
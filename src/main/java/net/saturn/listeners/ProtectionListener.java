@@ -1,6 +1,7 @@
 package net.saturn.listeners;
 
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
 import net.saturn.managers.ProtectionManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -13,7 +14,6 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
 import org.bukkit.inventory.AnvilInventory;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 
 public class ProtectionListener implements Listener {
 
@@ -41,20 +41,14 @@ public class ProtectionListener implements Listener {
         // Special handling for anvil result slot
         if (event.getInventory() instanceof AnvilInventory && event.getRawSlot() == 2) {
             // Check the result item after a delay to ensure it's finalized
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (player.isOnline()) {
-                        ItemStack result = event.getInventory().getItem(2);
-                        if (result != null && protectionManager.enforceLimit(result)) {
-                            player.sendMessage(colorize(plugin.getConfig().getString(
-                                    "messages.protection-limited",
-                                    "&eYour item's Protection enchantment has been limited to the maximum allowed level."
-                            )));
-                        }
+            plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+                if (player.isOnline()) {
+                    ItemStack result = event.getInventory().getItem(2);
+                    if (result != null && protectionManager.enforceLimit(result)) {
+                        plugin.getMessages().send(player, Message.PROTECTION_LIMITED);
                     }
                 }
-            }.runTaskLater(plugin, 1L);
+            }, 1L);
             return;
         }
 
@@ -64,14 +58,11 @@ public class ProtectionListener implements Listener {
         }
 
         // Check and enforce limit after a small delay for other inventory actions
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (player.isOnline()) {
-                    checkPlayerInventory(player);
-                }
+        plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+            if (player.isOnline()) {
+                checkPlayerInventory(player);
             }
-        }.runTaskLater(plugin, 1L);
+        }, 1L);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
@@ -80,20 +71,14 @@ public class ProtectionListener implements Listener {
         ItemStack item = event.getItem();
 
         // Check if the enchantment will result in protection that exceeds the limit
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (player.isOnline() && item != null) {
-                    boolean modified = protectionManager.enforceLimit(item);
-                    if (modified) {
-                        player.sendMessage(colorize(plugin.getConfig().getString(
-                                "messages.protection-limited",
-                                "&eYour item's Protection enchantment has been limited to the maximum allowed level."
-                        )));
-                    }
+        plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+            if (player.isOnline() && item != null) {
+                boolean modified = protectionManager.enforceLimit(item);
+                if (modified) {
+                    plugin.getMessages().send(player, Message.PROTECTION_LIMITED);
                 }
             }
-        }.runTaskLater(plugin, 1L);
+        }, 1L);
     }
 
     @EventHandler
@@ -101,14 +86,11 @@ public class ProtectionListener implements Listener {
         Player player = event.getPlayer();
 
         // Check inventory after join
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (player.isOnline()) {
-                    checkPlayerInventory(player);
-                }
+        plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+            if (player.isOnline()) {
+                checkPlayerInventory(player);
             }
-        }.runTaskLater(plugin, 20L); // 1 second delay
+        }, 20L); // 1 second delay
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -117,20 +99,14 @@ public class ProtectionListener implements Listener {
         ItemStack item = event.getItem().getItemStack();
 
         // Check the picked up item
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (player.isOnline()) {
-                    boolean modified = protectionManager.enforceLimit(item);
-                    if (modified) {
-                        player.sendMessage(colorize(plugin.getConfig().getString(
-                                "messages.protection-limited",
-                                "&eYour item's Protection enchantment has been limited to the maximum allowed level."
-                        )));
-                    }
+        plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+            if (player.isOnline()) {
+                boolean modified = protectionManager.enforceLimit(item);
+                if (modified) {
+                    plugin.getMessages().send(player, Message.PROTECTION_LIMITED);
                 }
             }
-        }.runTaskLater(plugin, 1L);
+        }, 1L);
     }
 
     /**
@@ -164,14 +140,7 @@ public class ProtectionListener implements Listener {
         }
 
         if (modified) {
-            player.sendMessage(colorize(plugin.getConfig().getString(
-                    "messages.protection-limited",
-                    "&eYour items' Protection enchantments have been limited to the maximum allowed level."
-            )));
+            plugin.getMessages().send(player, Message.PROTECTION_LIMITED);
         }
     }
-
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package net.saturn.listeners.regions;
+
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldguard.LocalPlayer;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
+import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.flags.StateFlag;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.session.MoveType;
+import com.sk89q.worldguard.session.Session;
+import com.sk89q.worldguard.session.SessionManager;
+import com.sk89q.worldguard.session.handler.Handler;
+import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
+import net.saturn.managers.CombatManager;
+import net.saturn.managers.regions.CombatEntryFlag;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Set;
+
+/**
+ * WorldGuard session handler that refuses tagged players entry where {@code combat-entry} is denied.
+ */
+public class CombatEntryHandler extends Handler {
+
+    private static Factory factory;
+
+    private final BetterCombatLogging plugin;
+
+    private CombatEntryHandler(Session session, BetterCombatLogging plugin) {
+        super(session);
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds the handler to every session WorldGuard creates from now on, and to the sessions of players already
+     * online, who are still there after a reload. WorldGuard must be enabled.
+     */
+    public static void register(BetterCombatLogging plugin) {
+        SessionManager sessions = WorldGuard.getInstance().getPlatform().getSessionManager();
+        factory = new Factory(plugin);
+        sessions.registerHandler(factory, null);
+
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            Session session = sessions.getIfPresent(WorldGuardPlugin.inst().wrapPlayer(online));
+            if (session != null && session.getHandler(CombatEntryHandler.class) == null) {
+                session.register(factory.create(session));
+            }
+        }
+        sessions.resetAllStates();
+    }
+
+    public static void unregister() {
+        if (factory != null) {
+            WorldGuard.getInstance().getPlatform().getSessionManager().unregisterHandler(factory);
+            factory = null;
+        }
+    }
+
+    @Override
+    public boolean onCrossBoundary(LocalPlayer player, Location from, Location to, ApplicableRegionSet toSet,
+                                   Set<ProtectedRegion> entered, Set<ProtectedRegion> exited, MoveType moveType) {
+        // Riders are left to RegionVehicleListener, which stops the vehicle itself and sends the vehicle message
+        StateFlag flag = CombatEntryFlag.get();
+        if (flag == null || !moveType.isCancellable() || moveType == MoveType.RIDE) {
+            return true;
+        }
+
+        Player bukkitPlayer = Bukkit.getPlayer(player.getUniqueId());
+        CombatManager combatManager = plugin.getCombatManager();
+        if (bukkitPlayer == null || !combatManager.isInCombat(bukkitPlayer)) {
+            return true;
+        }
+
+        if (toSet.queryState(player, flag) != StateFlag.State.DENY) {
+            return true;
+        }
+
+        // Already standing where entry is denied, pinning them in place would trap them. RegionListener ejects them.
+        StateFlag.State origin = WorldGuard.getInstance().getPlatform().getRegionContainer().createQuery()
+                .queryState(from, player, flag);
+        if (origin == StateFlag.State.DENY) {
+            return true;
+        }
+
+        plugin.getMessages().send(bukkitPlayer, Message.REGION_BLOCKED, combatManager.getRemainingTime(bukkitPlayer));
+        return false;
+    }
+
+    public static class Factory extends Handler.Factory<CombatEntryHandler> {
+
+        private final BetterCombatLogging plugin;
+
+        public Factory(BetterCombatLogging plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public CombatEntryHandler create(Session session) {
+            return new CombatEntryHandler(session, plugin);
+        }
+    }
+}
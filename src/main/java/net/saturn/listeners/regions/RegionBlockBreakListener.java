@@ -10,7 +10,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockDamageEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 public class RegionBlockBreakListener implements Listener {
@@ -55,14 +54,11 @@ public class RegionBlockBreakListener implements Listener {
                 // Refresh the fake block multiple times to ensure it stays
                 for (int i = 0; i < 3; i++) {
                     final int delay = i;
-                    new BukkitRunnable() {
-                        @Override
-                        public void run() {
-                            if (player.isOnline() && plugin.getRegionVisualizer() != null) {
-                                player.sendBlockChange(blockLocation, Material.RED_STAINED_GLASS.createBlockData());
-                            }
+                    plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+                        if (player.isOnline() && plugin.getRegionVisualizer() != null) {
+                            player.sendBlockChange(blockLocation, Material.RED_STAINED_GLASS.createBlockData());
                         }
-                    }.runTaskLater(plugin, delay * 2L);
+                    }, delay * 2L);
                 }
 
                 // Fling player if in combat
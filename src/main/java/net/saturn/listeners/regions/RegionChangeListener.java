@@ -0,0 +1,74 @@
+package net.saturn.listeners.regions;
+
+import net.saturn.BetterCombatLogging;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the region indexes when WorldGuard regions may have changed. WorldGuard fires no events for region
+ * edits, so its commands and world loads stand in for them.
+ */
+public class RegionChangeListener implements Listener {
+
+    private static final Set<String> REGION_COMMANDS = Set.of("rg", "region", "regions", "wg", "worldguard",
+            "worldguard:rg", "worldguard:region", "worldguard:regions", "worldguard:wg", "worldguard:worldguard");
+    private static final long REFRESH_DELAY_TICKS = 20L; // /rg load and /wg reload finish off-thread
+
+    private final BetterCombatLogging plugin;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public RegionChangeListener(BetterCombatLogging plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        if (isRegionCommand(event.getMessage())) {
+            scheduleRefresh();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        if (isRegionCommand(event.getCommand())) {
+            scheduleRefresh();
+        }
+    }
+
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        scheduleRefresh();
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        scheduleRefresh();
+    }
+
+    private static boolean isRegionCommand(String command) {
+        String line = command.startsWith("/") ? command.substring(1) : command;
+        int space = line.indexOf(' ');
+        return REGION_COMMANDS.contains((space < 0 ? line : line.substring(0, space)).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Commands run after their event, so the rebuild waits. Any number of changes in the meantime rebuild once.
+     */
+    private void scheduleRefresh() {
+        if (scheduled.compareAndSet(false, true)) {
+            plugin.getTaskScheduler().runGlobalLater(() -> {
+                scheduled.set(false);
+                plugin.refreshRegions();
+            }, REFRESH_DELAY_TICKS);
+        }
+    }
+}
@@ -1,32 +1,42 @@
 package net.saturn.listeners.regions;
 
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
-import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.protection.ApplicableRegionSet;
-import com.sk89q.worldguard.protection.regions.ProtectedRegion;
-import com.sk89q.worldguard.protection.regions.RegionContainer;
-import com.sk89q.worldguard.protection.regions.RegionQuery;
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
 import net.saturn.managers.CombatManager;
+import net.saturn.managers.regions.BlockedRegionIndex;
+import net.saturn.managers.regions.CombatEntryFlag;
+import net.saturn.managers.regions.SafeExitFinder;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.util.Vector;
 
-import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RegionListener implements Listener {
 
     private final BetterCombatLogging plugin;
     private final CombatManager combatManager;
+    private final BlockedRegionIndex blockedRegions;
+    private final Map<UUID, BlockedRegionIndex.Cell> lastCells; // Per player, the cell their last checked move ended in
+    private final SafeExitFinder exitFinder;
 
-    public RegionListener(BetterCombatLogging plugin, CombatManager combatManager) {
+    public RegionListener(BetterCombatLogging plugin, CombatManager combatManager, BlockedRegionIndex blockedRegions) {
         this.plugin = plugin;
         this.combatManager = combatManager;
+        this.blockedRegions = blockedRegions;
+        this.lastCells = new ConcurrentHashMap<>();
+        this.exitFinder = new SafeExitFinder(plugin, blockedRegions);
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -48,120 +58,119 @@ public class RegionListener implements Listener {
             return;
         }
 
-        // Get blocked regions from RegionManager
-        List<String> blockedRegions = plugin.getRegionManager().getBlockedRegions();
         if (blockedRegions.isEmpty()) {
             return;
         }
 
-        boolean isInBlockedRegionNow = isInBlockedRegion(to, blockedRegions);
-        boolean wasInBlockedRegion = isInBlockedRegion(from, blockedRegions);
-
-        // If player is trying to enter a blocked region, cancel movement
-        if (isInBlockedRegionNow && !wasInBlockedRegion) {
-            event.setCancelled(true);
-
-            int remaining = combatManager.getRemainingTime(player);
-            String message = plugin.getConfig().getString("messages.region-blocked",
-                            "&cYou cannot enter this region while in combat! &7({time}s remaining)")
-                    .replace("{time}", String.valueOf(remaining));
-            player.sendMessage(colorize(message));
-        }
-        // If player is somehow already in a blocked region, eject them
-        else if (isInBlockedRegionNow && wasInBlockedRegion) {
-            ejectPlayerFromRegion(player, from, to, blockedRegions);
+        // Nearly every move stays inside the free cell the previous one ended in, which needs no lookup at all
+        BlockedRegionIndex.Cell cell = cellFor(player, to);
+        if (!cell.blocked()) {
+            // A cell is a box, so a move within one cannot pass anything. Leaving it fast enough (riptide,
+            // elytra, wind charges) can jump a thin region between two free blocks, so trace the path.
+            if (!cell.contains(from) && blockedRegions.intersects(from, to) && !blockedRegions.isBlocked(from)
+                    && crossesDeniedRegion(player, from, to)) {
+                blockEntry(event, player);
+            }
+            return;
         }
-    }
-
-    private void ejectPlayerFromRegion(Player player, Location from, Location to, List<String> blockedRegions) {
-        // Calculate direction away from the region center
-        Location safeLocation = findSafeLocationOutsideRegion(player, from, to, blockedRegions);
-
-        if (safeLocation != null) {
-            // Teleport player to safe location
-            player.teleport(safeLocation);
-
-            // Add knockback effect away from region
-            Vector direction = safeLocation.toVector().subtract(to.toVector()).normalize();
-            direction.setY(0.3); // Add upward velocity
-            direction.multiply(1.2); // Increase knockback strength
-
-            // Apply velocity after a short delay to ensure teleport completes
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (player.isOnline()) {
-                        player.setVelocity(direction);
-                    }
-                }
-            }.runTaskLater(plugin, 1L);
 
-            int remaining = combatManager.getRemainingTime(player);
-            String message = plugin.getConfig().getString("messages.region-ejected",
-                            "&cYou were ejected from a blocked region! &7({time}s remaining)")
-                    .replace("{time}", String.valueOf(remaining));
-            player.sendMessage(colorize(message));
+        // Stepping or teleporting in is refused by CombatEntryHandler, WorldGuard resolves the flag for that.
+        // A player already inside was tagged there or had the region grow around them, so eject them.
+        if (cell.contains(from) || blockedRegions.isBlocked(from)) {
+            ejectPlayerFromRegion(player, to);
         }
     }
 
-    private Location findSafeLocationOutsideRegion(Player player, Location from, Location current, List<String> blockedRegions) {
-        // Try the previous location first
-        if (!isInBlockedRegion(from, blockedRegions)) {
-            return from;
-        }
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        lastCells.remove(event.getPlayer().getUniqueId());
+        exitFinder.forget(event.getPlayer());
+    }
 
-        // Search in a spiral pattern for a safe location
-        Location searchStart = current.clone();
-        int maxRadius = 10;
+    /* ============================================================
+       EXIT CACHE INVALIDATION
+       ============================================================ */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        exitFinder.invalidate(event.getBlock());
+    }
 
-        for (int radius = 1; radius <= maxRadius; radius++) {
-            for (int x = -radius; x <= radius; x++) {
-                for (int z = -radius; z <= radius; z++) {
-                    // Only check the outer edge of the current radius
-                    if (Math.abs(x) != radius && Math.abs(z) != radius) {
-                        continue;
-                    }
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        exitFinder.invalidate(event.getBlock());
+    }
 
-                    Location testLoc = searchStart.clone().add(x, 0, z);
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        event.blockList().forEach(exitFinder::invalidate);
+    }
 
-                    // Find ground level
-                    for (int y = -5; y <= 5; y++) {
-                        Location groundTest = testLoc.clone().add(0, y, 0);
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        event.blockList().forEach(exitFinder::invalidate);
+    }
 
-                        if (!isInBlockedRegion(groundTest, blockedRegions) && isSafeLocation(groundTest)) {
-                            return groundTest;
-                        }
-                    }
-                }
-            }
-        }
+    private void blockEntry(PlayerMoveEvent event, Player player) {
+        event.setCancelled(true);
 
-        // If no safe location found, return spawn or world spawn
-        return player.getWorld().getSpawnLocation();
+        plugin.getMessages().send(player, Message.REGION_BLOCKED, combatManager.getRemainingTime(player));
     }
 
-    private boolean isSafeLocation(Location location) {
-        // Check if the location has solid ground and air above
-        return location.getBlock().getType().isSolid() &&
-                location.clone().add(0, 1, 0).getBlock().getType().isAir() &&
-                location.clone().add(0, 2, 0).getBlock().getType().isAir();
+    private BlockedRegionIndex.Cell cellFor(Player player, Location location) {
+        BlockedRegionIndex.Cell cell = lastCells.get(player.getUniqueId());
+        if (cell == null || !cell.contains(location) || !blockedRegions.isCurrent(cell)) {
+            cell = blockedRegions.cellAt(location);
+            lastCells.put(player.getUniqueId(), cell);
+        }
+        return cell;
     }
 
-    private boolean isInBlockedRegion(Location location, List<String> blockedRegions) {
-        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-        RegionQuery query = container.createQuery();
-        ApplicableRegionSet set = query.getApplicableRegions(BukkitAdapter.adapt(location));
+    /**
+     * Walks the path in half-block steps. Only the points the index flags are confirmed with WorldGuard, which
+     * applies any higher priority region allowing entry.
+     */
+    private boolean crossesDeniedRegion(Player player, Location from, Location to) {
+        int steps = (int) Math.ceil(from.distance(to) * 2.0);
+        if (steps == 0) {
+            return false;
+        }
 
-        for (ProtectedRegion region : set) {
-            if (blockedRegions.contains(region.getId())) {
+        Vector step = to.toVector().subtract(from.toVector()).multiply(1.0 / steps);
+        Location point = from.clone();
+        for (int i = 0; i < steps; i++) {
+            point.add(step);
+            if (blockedRegions.isBlocked(point) && CombatEntryFlag.deniesEntry(player, point)) {
                 return true;
             }
         }
-
         return false;
     }
 
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
+    private void ejectPlayerFromRegion(Player player, Location to) {
+        // The index ignores higher priority regions allowing entry inside a blocked one, WorldGuard has the last word
+        if (!CombatEntryFlag.deniesEntry(player, to)) {
+            return;
+        }
+
+        // The search runs off-thread, the player is launched once it reports back
+        exitFinder.findExit(player, to, safeLocation -> {
+            // Add knockback effect away from region
+            Vector direction = safeLocation.toVector().subtract(to.toVector()).normalize();
+            direction.setY(0.3); // Add upward velocity
+            direction.multiply(1.2); // Increase knockback strength
+
+            // Teleport player to safe location, then apply velocity once the teleport completes
+            player.teleportAsync(safeLocation).thenAccept(success -> {
+                if (success) {
+                    plugin.getTaskScheduler().runAtEntityLater(player, () -> {
+                        if (player.isOnline()) {
+                            player.setVelocity(direction);
+                        }
+                    }, 1L);
+                }
+            });
+
+            plugin.getMessages().send(player, Message.REGION_EJECTED, combatManager.getRemainingTime(player));
+        });
     }
 }
\ No newline at end of file
@@ -1,178 +1,637 @@
 package net.saturn.managers;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.saturn.api.event.CombatTagEvent;
+import net.saturn.api.event.CombatUntagEvent;
+import net.saturn.config.Message;
+import net.saturn.managers.combat.BossBarRenderer;
+import net.saturn.managers.combat.CombatDurationPolicy;
+import net.saturn.managers.combat.CombatJournal;
+import net.saturn.managers.combat.CombatTagTable;
+import net.saturn.managers.combat.CombatTagWheel;
+import net.saturn.managers.combat.DamageAttribution;
 import org.bukkit.Bukkit;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.event.entity.EntityDamageEvent;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks combat tags.
+ * Reads are lock-free and safe from any thread, mutations and the ticker are serialized on a single lock.
+ */
 public class CombatManager {
 
+    private static final int WHEEL_SLOTS = 512; // 25.6 seconds per lap at one slot per tick
+    private static final int BOSS_BAR_INTERVAL_TICKS = 20;
+    private static final int JOURNAL_CAPACITY = 1 << 20; // ~40k records before compaction is due
+
     private final net.saturn.BetterCombatLogging plugin;
-    private final Map<UUID, Long> combatTags;
-    private final Map<UUID, BossBar> bossBars;
-    private final Map<UUID, BukkitTask> bossBarTasks;
-    private final int combatDuration;
+    private final Object lock = new Object();
+    private final CombatTagTable combatTags; // Read path: one probe, no allocation
+    private final CombatTagWheel expiryWheel; // Drives expiry callbacks
+    private final CombatJournal journal;
+    private final Map<UUID, BossBarRenderer.Bar> bossBars;
+    private final BossBarRenderer bossBarRenderer;
+    private final Map<UUID, UUID> lastAttackers; // Victim -> attacker, readable from any thread
+    private final DamageAttribution damageAttribution; // Recent hits per victim, for kill credit
+    private volatile CombatDurationPolicy durationPolicy; // Swapped as a whole on reload
+    private final Map<UUID, CombatTagEvent.Entry> pendingTags; // New tags waiting for this tick's CombatTagEvent
+    private final Map<UUID, CombatUntagEvent.Entry> pendingUntags; // Removals waiting for this tick's CombatUntagEvent
+    private final Set<UUID> refreshedTags; // Running tags whose deadline moved this tick
+    private final Set<UUID> defaultDurationTags; // Tags whose deadline came from the global duration, not an override
+    private ScheduledTask tickTask;
+    private int ticksUntilBossBarUpdate;
 
     public CombatManager(net.saturn.BetterCombatLogging plugin) {
         this.plugin = plugin;
-        this.combatTags = new HashMap<>();
+        this.combatTags = new CombatTagTable();
+        this.expiryWheel = new CombatTagWheel(WHEEL_SLOTS);
+        this.journal = new CombatJournal(new File(plugin.getDataFolder(), "combat-journal.dat"), JOURNAL_CAPACITY, plugin.getLogger());
         this.bossBars = new HashMap<>();
-        this.bossBarTasks = new HashMap<>();
-        this.combatDuration = plugin.getConfig().getInt("combat-duration", 15);
+        this.bossBarRenderer = new BossBarRenderer();
+        this.lastAttackers = new ConcurrentHashMap<>();
+        this.damageAttribution = new DamageAttribution();
+        this.durationPolicy = CombatDurationPolicy.load(plugin.getConfig(), plugin.isWorldGuardEnabled(), plugin.getLogger());
+        this.pendingTags = new LinkedHashMap<>();
+        this.pendingUntags = new LinkedHashMap<>();
+        this.refreshedTags = new HashSet<>();
+        this.defaultDurationTags = new HashSet<>();
     }
 
-    public void tagPlayer(Player player) {
-        UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long expireTime = currentTime + (combatDuration * 1000L);
+    /**
+     * Starts the shared combat ticker. A single task advances the tag wheel every tick, so tags
+     * expire on time, and refreshes boss bars once per second regardless of how many players are tagged.
+     * The ticker lives on the global region scheduler, it only touches boss bars and sends messages, both of
+     * which are safe off the owning region thread.
+     */
+    public void start() {
+        if (tickTask != null) {
+            return;
+        }
+        restoreTags();
+        tickTask = plugin.getTaskScheduler().runGlobalTimer(this::tick, 1L, 1L); // Run every tick
+    }
 
-        boolean wasInCombat = isInCombat(player);
+    /**
+     * Re-applies tags from the journal that were still running when the server went down.
+     * Their owners are offline, the boss bar comes back when they rejoin.
+     */
+    private void restoreTags() {
+        synchronized (lock) {
+            Map<UUID, Long> restored = journal.open(System.currentTimeMillis());
+            for (Map.Entry<UUID, Long> entry : restored.entrySet()) {
+                expiryWheel.schedule(entry.getKey(), entry.getValue());
+                combatTags.put(entry.getKey(), entry.getValue());
+            }
 
-        // Always update the expire time to reset the timer
-        combatTags.put(uuid, expireTime);
+            if (!restored.isEmpty()) {
+                plugin.getLogger().info("Restored " + restored.size() + " combat tags from the journal");
+            }
+        }
+    }
 
-        if (!wasInCombat) {
-            String enterMessage = plugin.getConfig().getString("messages.combat-enter", "&cYou are now in combat!");
-            player.sendMessage(colorize(enterMessage));
-            startBossBarTimer(player);
+    /**
+     * Shows the boss bar to a player that rejoined with a running tag
+     */
+    public void handleJoin(Player player) {
+        synchronized (lock) {
+            UUID uuid = player.getUniqueId();
+            if (expiryWheel.contains(uuid) && !bossBars.containsKey(uuid)) {
+                // The original duration is not journaled, size the bar so it never starts above full
+                long remaining = expiryWheel.getDeadline(uuid) - System.currentTimeMillis();
+                int seconds = Math.max(durationPolicy.getDefaultSeconds(), (int) ((remaining + 999) / 1000));
+                showBossBar(player, seconds);
+            }
         }
-        // If already in combat, the timer will be updated in the next tick of the BossBar task
     }
 
-    public boolean isInCombat(Player player) {
+    /**
+     * Rebuilds the duration policy from config.yml. New tags use it immediately, running tags keep their deadline.
+     */
+    public void reloadDurations() {
+        CombatDurationPolicy policy = CombatDurationPolicy.load(plugin.getConfig(), plugin.isWorldGuardEnabled(), plugin.getLogger());
+        policy.refreshRegions();
+        durationPolicy = policy;
+    }
+
+    /**
+     * Rebuilds the region duration table, used when WorldGuard regions may have changed
+     */
+    public void refreshRegionDurations() {
+        durationPolicy.refreshRegions();
+    }
+
+    /**
+     * Stretches or shrinks the time left on every running tag issued with the global duration by the same factor.
+     * Tags a region, damage cause or world override set keep their deadline.
+     */
+    public void rescaleTags(double factor) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            flushRefreshedTags();
+            for (UUID uuid : defaultDurationTags) {
+                if (!expiryWheel.contains(uuid)) {
+                    continue; // Not announced yet, applyTags starts it from the duration it was issued with
+                }
+                long expireTime = now + Math.max(50L, (long) ((expiryWheel.getDeadline(uuid) - now) * factor));
+                expiryWheel.schedule(uuid, expireTime);
+                combatTags.put(uuid, expireTime);
+                journal.recordTag(uuid, expireTime);
+
+                BossBarRenderer.Bar bar = bossBars.get(uuid);
+                if (bar != null) {
+                    bar.setDurationMillis((long) (bar.getDurationMillis() * factor));
+                }
+            }
+        }
+    }
+
+    public void tagPlayer(Player player) {
+        tagPlayer(player, null);
+    }
+
+    /**
+     * Tags a player, crediting the attacker if there is one. The tag reads as active immediately; for a new tag
+     * the {@link CombatTagEvent}, message and boss bar follow on the next tick, and a cancelled event undoes it.
+     */
+    public void tagPlayer(Player player, Player attacker) {
+        CombatDurationPolicy policy = durationPolicy;
+        int override = policy.overrideFor(player.getLocation(), null);
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            tagLocked(player, attacker, override, policy.getDefaultSeconds(), now);
+        }
+    }
+
+    /**
+     * Tags both sides of a hit under a single lock acquisition, each for the duration their position and the
+     * damage cause call for
+     */
+    public void tagPlayers(Player victim, Player attacker, EntityDamageEvent.DamageCause cause) {
+        CombatDurationPolicy policy = durationPolicy;
+        int victimOverride = policy.overrideFor(victim.getLocation(), cause);
+        int attackerOverride = policy.overrideFor(attacker.getLocation(), cause);
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            tagLocked(victim, attacker, victimOverride, policy.getDefaultSeconds(), now);
+            tagLocked(attacker, victim, attackerOverride, policy.getDefaultSeconds(), now);
+        }
+    }
+
+    private void tagLocked(Player player, Player attacker, int override, int defaultSeconds, long now) {
         UUID uuid = player.getUniqueId();
-        if (!combatTags.containsKey(uuid)) {
-            return false;
+        boolean byDefault = override == CombatDurationPolicy.NO_OVERRIDE;
+        int seconds = byDefault ? defaultSeconds : override;
+
+        if (expiryWheel.contains(uuid)) {
+            // Already in combat: readers see the new deadline now, the wheel and journal catch up at the end of the tick.
+            // A shorter override never cuts a running tag short.
+            long expireTime = now + (seconds * 1000L);
+            if (expireTime > combatTags.get(uuid)) {
+                combatTags.put(uuid, expireTime);
+                refreshedTags.add(uuid);
+                markDuration(uuid, byDefault);
+
+                BossBarRenderer.Bar bar = bossBars.get(uuid);
+                if (bar != null) {
+                    bar.setDurationMillis(seconds * 1000L);
+                }
+            }
+            if (attacker != null) {
+                lastAttackers.put(uuid, attacker.getUniqueId());
+            }
+            pendingUntags.remove(uuid);
+            return;
         }
 
-        long expireTime = combatTags.get(uuid);
-        if (System.currentTimeMillis() >= expireTime) {
-            removeTag(player);
-            return false;
+        // Readers see the new tag right away, so a quit or a region check later in this tick already counts it.
+        // The wheel, journal, event, message and boss bar follow at the end of the tick.
+        long expireTime = now + (seconds * 1000L);
+        if (expireTime > combatTags.get(uuid)) {
+            combatTags.put(uuid, expireTime);
+            markDuration(uuid, byDefault);
+        }
+        if (attacker != null) {
+            lastAttackers.put(uuid, attacker.getUniqueId());
         }
 
-        return true;
+        // Several hits in one tick collapse into one entry, keeping the most recent attacker and the longest duration
+        CombatTagEvent.Entry pending = pendingTags.get(uuid);
+        if (pending == null || attacker != null || seconds > pending.getDurationSeconds()) {
+            Player credited = attacker != null || pending == null ? attacker : pending.getAttacker();
+            int longest = pending != null ? Math.max(seconds, pending.getDurationSeconds()) : seconds;
+            pendingTags.put(uuid, new CombatTagEvent.Entry(player, credited, longest));
+        }
+    }
+
+    /**
+     * Records whether the tag's current deadline came from the global duration, which is what rescaling touches
+     */
+    private void markDuration(UUID uuid, boolean byDefault) {
+        if (byDefault) {
+            defaultDurationTags.add(uuid);
+        } else {
+            defaultDurationTags.remove(uuid);
+        }
+    }
+
+    /**
+     * Remembers a hit for kill credit, allocation-free and safe from any thread
+     */
+    public void recordDamage(Player victim, Player attacker, double damage) {
+        damageAttribution.record(victim.getUniqueId(), attacker.getUniqueId(), damage, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the online player that should be credited if this player dies now, or null if nobody hit them
+     * during the current combat window
+     */
+    public Player findKiller(Player victim) {
+        long windowStart = System.currentTimeMillis() - (durationPolicy.getMaxSeconds() * 1000L);
+        return damageAttribution.findKiller(victim.getUniqueId(), windowStart, plugin.getSettings().killCreditStrongest());
+    }
+
+    public boolean isInCombat(Player player) {
+        return isInCombat(player.getUniqueId());
+    }
+
+    /**
+     * Lock-free combat check, safe to call from any thread
+     */
+    public boolean isInCombat(UUID uuid) {
+        // Expiry is driven by the wheel, a tag that is due but not yet processed simply reads as expired
+        long expireTime = combatTags.get(uuid);
+        return expireTime != 0L && System.currentTimeMillis() < expireTime;
     }
 
     public int getRemainingTime(Player player) {
-        UUID uuid = player.getUniqueId();
-        if (!combatTags.containsKey(uuid)) {
+        return getRemainingTime(player.getUniqueId());
+    }
+
+    /**
+     * Lock-free remaining time lookup, safe to call from any thread
+     */
+    public int getRemainingTime(UUID uuid) {
+        long expireTime = combatTags.get(uuid);
+        if (expireTime == 0L) {
             return 0;
         }
 
-        long expireTime = combatTags.get(uuid);
         long remaining = (expireTime - System.currentTimeMillis()) / 1000;
         return (int) Math.max(0, remaining);
     }
 
+    /**
+     * Lock-free lookup of the player that last tagged this player
+     */
+    public UUID getLastAttacker(UUID uuid) {
+        return lastAttackers.get(uuid);
+    }
+
+    /**
+     * @return the default tag duration in seconds, before world, region or damage overrides
+     */
+    public int getCombatDuration() {
+        return durationPolicy.getDefaultSeconds();
+    }
+
+    /**
+     * @return a snapshot of every tagged player
+     */
+    public Set<UUID> getTaggedPlayers() {
+        synchronized (lock) {
+            Set<UUID> tagged = new HashSet<>();
+            for (CombatTagWheel.Entry entry : expiryWheel.entries()) {
+                tagged.add(entry.getUniqueId());
+            }
+            return tagged;
+        }
+    }
+
     public void removeTag(Player player) {
+        removeTag(player, CombatUntagEvent.Reason.REMOVED);
+    }
+
+    /**
+     * Queues the player's tag for removal on the next tick, after the {@link CombatUntagEvent} for that tick
+     */
+    public void removeTag(Player player, CombatUntagEvent.Reason reason) {
         UUID uuid = player.getUniqueId();
-        if (combatTags.remove(uuid) != null) {
-            String exitMessage = plugin.getConfig().getString("messages.combat-exit", "&aYou are no longer in combat!");
-            player.sendMessage(colorize(exitMessage));
-            stopBossBarTimer(player);
+        synchronized (lock) {
+            if (pendingTags.remove(uuid) != null && !expiryWheel.contains(uuid)) {
+                // Never announced, so it goes without an untag event too
+                combatTags.remove(uuid);
+                defaultDurationTags.remove(uuid);
+                lastAttackers.remove(uuid);
+            }
+            if (expiryWheel.contains(uuid) && !pendingUntags.containsKey(uuid)) {
+                pendingUntags.put(uuid, new CombatUntagEvent.Entry(uuid, lastAttackers.get(uuid), reason));
+            }
         }
     }
 
-    private void startBossBarTimer(Player player) {
-        UUID uuid = player.getUniqueId();
+    private void tick() {
+        List<CombatTagEvent.Entry> tags;
+        List<CombatUntagEvent.Entry> untags;
 
-        // Cancel existing task and boss bar if any
-        stopBossBarTimer(player);
+        synchronized (lock) {
+            if (expiryWheel.isEmpty() && pendingTags.isEmpty() && pendingUntags.isEmpty()) {
+                return;
+            }
 
-        // Create boss bar
-        String bossBarTitle = plugin.getConfig().getString("messages.boss-bar", "&c⚔ Combat: {time}s");
-        BossBar bossBar = Bukkit.createBossBar(
-                colorize(bossBarTitle.replace("{time}", String.valueOf(combatDuration))),
-                BarColor.RED,
-                BarStyle.SOLID
-        );
-        bossBar.addPlayer(player);
-        bossBar.setVisible(true);
-        bossBars.put(uuid, bossBar);
-
-        // Start update task
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    cancel();
-                    stopBossBarTimer(player);
-                    return;
+            // Relink refreshed tags first so a player hit this tick is never expired by it
+            flushRefreshedTags();
+
+            // Expire due tags, only the slots that came due are visited
+            expiryWheel.advance(System.currentTimeMillis(), this::queueExpired);
+
+            tags = drain(pendingTags);
+            untags = drain(pendingUntags);
+        }
+
+        // Listeners run outside the lock so they can query or tag players themselves
+        if (!tags.isEmpty()) {
+            fireTagEvent(tags);
+        }
+        if (!untags.isEmpty()) {
+            fireUntagEvent(untags);
+        }
+
+        synchronized (lock) {
+            applyTags(tags);
+            applyUntags(untags);
+
+            if (journal.needsCompaction()) {
+                compactJournal(journal.beginCompaction(expiryWheel.entries()));
+            }
+
+            // Smooth bars are rendered every tick, otherwise once per second; either way only changes are sent
+            boolean smooth = plugin.getSettings().bossBarSmoothProgress();
+            if (smooth || --ticksUntilBossBarUpdate <= 0) {
+                ticksUntilBossBarUpdate = BOSS_BAR_INTERVAL_TICKS;
+                updateBossBars(smooth);
+            }
+        }
+    }
+
+    /**
+     * Writes and moves the compacted journal off-thread, the lock is only taken to hand the log over
+     */
+    private void compactJournal(CombatJournal.Compaction compaction) {
+        plugin.getTaskScheduler().runAsync(() -> {
+            try {
+                compaction.writeSnapshot();
+                synchronized (lock) {
+                    if (!journal.detach(compaction)) {
+                        return;
+                    }
+                }
+                compaction.replace();
+                synchronized (lock) {
+                    journal.attach(compaction);
                 }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    journal.abort(compaction, e);
+                }
+            }
+        });
+    }
+
+    private void flushRefreshedTags() {
+        if (refreshedTags.isEmpty()) {
+            return;
+        }
 
-                int remaining = getRemainingTime(player);
-                if (remaining <= 0) {
-                    removeTag(player);
-                    cancel();
-                    return;
+        for (UUID uuid : refreshedTags) {
+            long expireTime = combatTags.get(uuid);
+            if (expireTime != 0L && expiryWheel.contains(uuid)) {
+                expiryWheel.schedule(uuid, expireTime); // O(1) relink
+                journal.recordTag(uuid, expireTime);
+            }
+        }
+        refreshedTags.clear();
+    }
+
+    private static <T> List<T> drain(Map<UUID, T> pending) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        List<T> drained = new ArrayList<>(pending.values());
+        pending.clear();
+        return drained;
+    }
+
+    private void queueExpired(UUID uuid) {
+        // The wheel has already dropped the entry; the tag table keeps reading as expired until the batch is applied
+        if (!pendingUntags.containsKey(uuid)) {
+            pendingUntags.put(uuid, new CombatUntagEvent.Entry(uuid, lastAttackers.get(uuid), CombatUntagEvent.Reason.EXPIRED));
+        }
+    }
+
+    private void fireTagEvent(List<CombatTagEvent.Entry> tags) {
+        // Skip the allocation and dispatch entirely when nobody listens
+        if (CombatTagEvent.getHandlerList().getRegisteredListeners().length == 0) {
+            return;
+        }
+
+        CombatTagEvent event = new CombatTagEvent(tags);
+        Bukkit.getPluginManager().callEvent(event);
+        if (event.isCancelled()) {
+            for (CombatTagEvent.Entry entry : tags) {
+                entry.setCancelled(true);
+            }
+        }
+    }
+
+    private void fireUntagEvent(List<CombatUntagEvent.Entry> untags) {
+        if (CombatUntagEvent.getHandlerList().getRegisteredListeners().length == 0) {
+            return;
+        }
+
+        CombatUntagEvent event = new CombatUntagEvent(untags);
+        Bukkit.getPluginManager().callEvent(event);
+        if (event.isCancelled()) {
+            for (CombatUntagEvent.Entry entry : untags) {
+                entry.setCancelled(true);
+            }
+        }
+    }
+
+    private void applyTags(List<CombatTagEvent.Entry> tags) {
+        long now = System.currentTimeMillis();
+
+        for (CombatTagEvent.Entry entry : tags) {
+            Player player = entry.getPlayer();
+            UUID uuid = player.getUniqueId();
+            if (entry.isCancelled() || !player.isOnline()) {
+                // Take back the tag readers have been seeing since the hit, unless it was running already
+                if (!expiryWheel.contains(uuid)) {
+                    combatTags.remove(uuid);
+                    defaultDurationTags.remove(uuid);
+                    lastAttackers.remove(uuid);
                 }
+                continue;
+            }
+            if (entry.getDurationSeconds() != durationPolicy.getDefaultSeconds()) {
+                defaultDurationTags.remove(uuid); // A listener picked its own duration
+            }
+
+            long expireTime = now + (entry.getDurationSeconds() * 1000L);
+            boolean newlyTagged = expiryWheel.schedule(uuid, expireTime);
+            combatTags.put(uuid, expireTime);
+            journal.recordTag(uuid, expireTime);
+            if (entry.getAttacker() != null) {
+                lastAttackers.put(uuid, entry.getAttacker().getUniqueId());
+            }
 
-                // Update boss bar title
-                String title = plugin.getConfig().getString("messages.boss-bar", "&c⚔ Combat: {time}s")
-                        .replace("{time}", String.valueOf(remaining));
-                bossBar.setTitle(colorize(title));
-
-                // Update boss bar progress (percentage of time remaining)
-                double progress = (double) remaining / combatDuration;
-                bossBar.setProgress(Math.max(0.0, Math.min(1.0, progress)));
-
-                // Change color based on remaining time
-                if (remaining <= 5) {
-                    bossBar.setColor(BarColor.YELLOW);
-                } else if (remaining <= 10) {
-                    bossBar.setColor(BarColor.RED);
-                } else {
-                    bossBar.setColor(BarColor.RED);
+            if (newlyTagged) {
+                plugin.getAuditLog().recordTag(player, entry.getAttacker());
+                plugin.getMessages().send(player, Message.COMBAT_ENTER);
+                showBossBar(player, entry.getDurationSeconds());
+            }
+        }
+    }
+
+    private void applyUntags(List<CombatUntagEvent.Entry> untags) {
+        for (CombatUntagEvent.Entry entry : untags) {
+            UUID uuid = entry.getUniqueId();
+            boolean expired = !expiryWheel.contains(uuid);
+
+            // Tagged again while the event was being dispatched. A new tag only reaches the wheel next tick, but it
+            // already waits in pendingTags and must not be undone here.
+            if (entry.getReason() == CombatUntagEvent.Reason.EXPIRED && (!expired || pendingTags.containsKey(uuid))) {
+                continue;
+            }
+
+            if (entry.isCancelled()) {
+                if (expired) {
+                    // Vetoed expiry: start a fresh tag instead of leaving the player in limbo
+                    long expireTime = System.currentTimeMillis() + (durationPolicy.getDefaultSeconds() * 1000L);
+                    expiryWheel.schedule(uuid, expireTime);
+                    combatTags.put(uuid, expireTime);
+                    defaultDurationTags.add(uuid);
+                    journal.recordTag(uuid, expireTime);
                 }
+                continue;
             }
-        }.runTaskTimer(plugin, 0L, 20L); // Run every second
 
-        bossBarTasks.put(uuid, task);
+            expiryWheel.cancel(uuid);
+            combatTags.remove(uuid);
+            defaultDurationTags.remove(uuid);
+            journal.recordUntag(uuid);
+            plugin.getAuditLog().recordUntag(uuid, entry.getAttackerId(), entry.getReason().name());
+            lastAttackers.remove(uuid);
+            damageAttribution.clear(uuid);
+
+            Player player = Bukkit.getPlayer(uuid);
+            hideBossBar(uuid, player);
+
+            if (player != null) {
+                plugin.getMessages().send(player, Message.COMBAT_EXIT);
+            }
+        }
     }
 
-    private void stopBossBarTimer(Player player) {
-        UUID uuid = player.getUniqueId();
+    private void updateBossBars(boolean smooth) {
+        if (bossBars.isEmpty()) {
+            return;
+        }
 
-        // Cancel task
-        BukkitTask task = bossBarTasks.remove(uuid);
-        if (task != null) {
-            task.cancel();
+        long currentTime = System.currentTimeMillis();
+        bossBarRenderer.prepare(plugin.getMessages().get(Message.BOSS_BAR), durationPolicy.getMaxSeconds());
+
+        for (CombatTagWheel.Entry entry : expiryWheel.entries()) {
+            UUID uuid = entry.getUniqueId();
+            BossBarRenderer.Bar bar = bossBars.get(uuid);
+            if (bar == null) {
+                continue;
+            }
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                // Player went offline, drop the boss bar but keep the tag until it expires
+                hideBossBar(uuid, null);
+                continue;
+            }
+
+            bossBarRenderer.render(bar, entry.getDeadline() - currentTime, smooth);
         }
+    }
+
+    private void showBossBar(Player player, int seconds) {
+        UUID uuid = player.getUniqueId();
+
+        // Remove existing boss bar if any
+        hideBossBar(uuid, player);
+
+        // Create boss bar
+        bossBarRenderer.prepare(plugin.getMessages().get(Message.BOSS_BAR), durationPolicy.getMaxSeconds());
+        BossBar bossBar = Bukkit.createBossBar(
+                bossBarRenderer.title(seconds),
+                BarColor.RED,
+                BarStyle.SOLID
+        );
+        bossBar.addPlayer(player);
+        bossBar.setVisible(true);
+        bossBars.put(uuid, new BossBarRenderer.Bar(bossBar, seconds, seconds * 1000L));
+    }
 
-        // Remove boss bar
-        BossBar bossBar = bossBars.remove(uuid);
-        if (bossBar != null) {
-            bossBar.removePlayer(player);
+    private void hideBossBar(UUID uuid, Player player) {
+        BossBarRenderer.Bar bar = bossBars.remove(uuid);
+        if (bar != null) {
+            BossBar bossBar = bar.getBossBar();
+            if (player != null) {
+                bossBar.removePlayer(player);
+            } else {
+                bossBar.removeAll();
+            }
             bossBar.setVisible(false);
         }
     }
 
     public void shutdown() {
-        // Cancel all boss bar tasks
-        for (BukkitTask task : bossBarTasks.values()) {
-            task.cancel();
+        // Cancel the shared combat ticker
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
         }
-        bossBarTasks.clear();
 
-        // Remove all boss bars
-        for (BossBar bossBar : bossBars.values()) {
-            bossBar.removeAll();
-            bossBar.setVisible(false);
-        }
-        bossBars.clear();
+        synchronized (lock) {
+            // Remove all boss bars
+            for (BossBarRenderer.Bar bar : bossBars.values()) {
+                bar.getBossBar().removeAll();
+                bar.getBossBar().setVisible(false);
+            }
+            bossBars.clear();
 
-        combatTags.clear();
-    }
+            // Running tags stay in the journal and are restored on the next startup
+            flushRefreshedTags();
+            journal.close();
 
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
+            pendingTags.clear();
+            pendingUntags.clear();
+            refreshedTags.clear();
+            defaultDurationTags.clear();
+            lastAttackers.clear();
+            damageAttribution.clearAll();
+            expiryWheel.clear();
+            combatTags.clear();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package net.saturn.managers.audit;
+
+import java.util.UUID;
+
+/**
+ * One line of the combat audit log. Optional fields are null (or NaN for numbers) when they do not apply.
+ */
+public record AuditEvent(
+        long time,
+        Type type,
+        UUID player,
+        String playerName,
+        UUID other,
+        String otherName,
+        double damage,
+        String world,
+        double x,
+        double y,
+        double z,
+        String detail
+) {
+
+    public enum Type {
+        HIT,
+        TAG,
+        UNTAG,
+        DEATH,
+        COMBAT_LOG
+    }
+
+    /**
+     * Appends this event as a single NDJSON line, without the trailing newline
+     */
+    void appendJson(StringBuilder out) {
+        out.append("{\"time\":").append(time);
+        out.append(",\"type\":\"").append(type.name()).append('"');
+        appendString(out, "player", player != null ? player.toString() : null);
+        appendString(out, "playerName", playerName);
+        appendString(out, "other", other != null ? other.toString() : null);
+        appendString(out, "otherName", otherName);
+        if (!Double.isNaN(damage)) {
+            out.append(",\"damage\":").append(damage);
+        }
+        if (world != null) {
+            appendString(out, "world", world);
+            out.append(",\"x\":").append(x).append(",\"y\":").append(y).append(",\"z\":").append(z);
+        }
+        appendString(out, "detail", detail);
+        out.append('}');
+    }
+
+    private static void appendString(StringBuilder out, String key, String value) {
+        if (value == null) {
+            return;
+        }
+
+        out.append(",\"").append(key).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,78 @@
+package net.saturn.managers.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer with many producers and a single consumer.
+ * Every slot carries a sequence number telling producers and the consumer whose turn it is, so
+ * {@link #offer} is one CAS on the tail and never blocks: when the ring is full it returns false.
+ */
+class AuditRing {
+
+    private final AtomicReferenceArray<AuditEvent> events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // Only written by the consumer
+
+    AuditRing(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.events = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return an estimate of the number of buffered events
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    boolean offer(AuditEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.setPlain(index, event);
+                    sequences.setRelease(index, position + 1); // Publish to the consumer
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false; // Full: the consumer has not freed this slot yet
+            }
+            // Another producer claimed the slot, retry with the new tail
+        }
+    }
+
+    /**
+     * Consumer only
+     *
+     * @return the oldest event, or null if the ring is empty
+     */
+    AuditEvent poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+
+        AuditEvent event = events.getPlain(index);
+        events.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1); // Hand the slot back for the next lap
+        head = position + 1;
+        return event;
+    }
+}
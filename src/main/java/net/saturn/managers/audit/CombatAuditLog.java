@@ -0,0 +1,268 @@
+package net.saturn.managers.audit;
+
+import net.saturn.BetterCombatLogging;
+import net.saturn.config.PluginSettings;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records hits, tags, untags, deaths and combat logs for staff review, written to {@code audit/} off-thread.
+ */
+public class CombatAuditLog {
+
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final long IDLE_PARK_NANOS = 50_000_000L; // 50ms
+    private static final int BATCH_SIZE = 256;
+    private static final long DROP_WARNING_INTERVAL_MS = 10_000L;
+
+    private final BetterCombatLogging plugin;
+    private final File directory;
+    private final AuditRing ring;
+    private final int hitThreshold;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // Writer thread state
+    private Writer out;
+    private long fileBytes;
+    private boolean dirty;
+    private boolean failed;
+    private long unreportedDrops;
+    private long lastDropWarning;
+
+    public CombatAuditLog(BetterCombatLogging plugin) {
+        PluginSettings settings = plugin.getSettings();
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "audit");
+        this.ring = settings.auditLogEnabled() ? new AuditRing(settings.auditLogBufferSize()) : null;
+        this.hitThreshold = ring != null ? ring.capacity() / 4 * 3 : 0;
+        this.maxFileBytes = Math.max(1, settings.auditLogMaxFileSizeMb()) * 1024L * 1024L;
+        this.maxFiles = Math.max(1, settings.auditLogMaxFiles());
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    public void start() {
+        if (ring == null || running) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "BetterCombatLogging-Audit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops the writer after it has drained whatever is still buffered
+     */
+    public void stop() {
+        if (writerThread == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    /* ============================================================
+       RECORDING (any thread, never blocks)
+       ============================================================ */
+    public void recordHit(Player victim, Player attacker, double damage) {
+        if (ring == null) {
+            return;
+        }
+        // Hits are by far the most frequent event, shed them first when the writer falls behind
+        if (ring.size() >= hitThreshold) {
+            dropped.incrementAndGet();
+            return;
+        }
+        offer(AuditEvent.Type.HIT, victim, attacker != null ? attacker.getUniqueId() : null,
+                attacker != null ? attacker.getName() : null, damage, null);
+    }
+
+    public void recordTag(Player player, Player attacker) {
+        if (ring == null) {
+            return;
+        }
+        offer(AuditEvent.Type.TAG, player, attacker != null ? attacker.getUniqueId() : null,
+                attacker != null ? attacker.getName() : null, Double.NaN, null);
+    }
+
+    public void recordUntag(UUID player, UUID lastAttacker, String reason) {
+        if (ring == null) {
+            return;
+        }
+        push(new AuditEvent(System.currentTimeMillis(), AuditEvent.Type.UNTAG, player, null, lastAttacker, null,
+                Double.NaN, null, 0, 0, 0, reason));
+    }
+
+    public void recordDeath(Player player, Player killer) {
+        if (ring == null) {
+            return;
+        }
+        offer(AuditEvent.Type.DEATH, player, killer != null ? killer.getUniqueId() : null,
+                killer != null ? killer.getName() : null, Double.NaN, null);
+    }
+
+    public void recordCombatLog(Player player, UUID lastAttacker, int remainingSeconds) {
+        if (ring == null) {
+            return;
+        }
+        offer(AuditEvent.Type.COMBAT_LOG, player, lastAttacker, null, Double.NaN, remainingSeconds + "s remaining");
+    }
+
+    private void offer(AuditEvent.Type type, Player player, UUID other, String otherName, double damage, String detail) {
+        Location location = player.getLocation();
+        push(new AuditEvent(System.currentTimeMillis(), type, player.getUniqueId(), player.getName(), other, otherName,
+                damage, location.getWorld() != null ? location.getWorld().getName() : null,
+                location.getX(), location.getY(), location.getZ(), detail));
+    }
+
+    private void push(AuditEvent event) {
+        if (!ring.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /* ============================================================
+       WRITER THREAD
+       ============================================================ */
+    private void runWriter() {
+        StringBuilder line = new StringBuilder(256);
+
+        while (running || ring.size() > 0) {
+            int written = 0;
+            AuditEvent event;
+            while (written < BATCH_SIZE && (event = ring.poll()) != null) {
+                line.setLength(0);
+                event.appendJson(line);
+                line.append('\n');
+                write(line);
+                written++;
+            }
+
+            reportDrops();
+
+            if (written == 0) {
+                flush();
+                if (running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        closeFile();
+    }
+
+    private void reportDrops() {
+        unreportedDrops += dropped.getAndSet(0L);
+        long now = System.currentTimeMillis();
+        if (unreportedDrops > 0 && now - lastDropWarning >= DROP_WARNING_INTERVAL_MS) {
+            plugin.getLogger().warning("Combat audit log fell behind, dropped " + unreportedDrops + " events");
+            unreportedDrops = 0L;
+            lastDropWarning = now;
+        }
+    }
+
+    private void write(CharSequence line) {
+        if (failed) {
+            return; // Keep draining so the ring cannot fill up, but stop hammering a broken disk
+        }
+
+        try {
+            if (out == null || fileBytes >= maxFileBytes) {
+                rotate();
+            }
+            out.append(line);
+            fileBytes += line.length();
+            dirty = true;
+        } catch (IOException e) {
+            failed = true;
+            plugin.getLogger().severe("Could not write combat audit log, auditing disabled: " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void flush() {
+        if (!dirty || out == null) {
+            return;
+        }
+
+        try {
+            out.flush(); // Sync-flushes the gzip stream, so everything so far is readable with zcat
+            dirty = false;
+        } catch (IOException e) {
+            failed = true;
+            plugin.getLogger().severe("Could not flush combat audit log, auditing disabled: " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        directory.mkdirs();
+
+        File file = new File(directory, "combat-" + LocalDateTime.now().format(FILE_NAME) + ".ndjson.gz");
+        out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file, true), 8192, true), StandardCharsets.UTF_8));
+        fileBytes = 0L;
+        deleteOldFiles();
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not close combat audit log: " + e.getMessage());
+        }
+        out = null;
+        dirty = false;
+    }
+
+    private void deleteOldFiles() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("combat-") && name.endsWith(".ndjson.gz"));
+        if (files == null || files.length <= maxFiles) {
+            return;
+        }
+
+        // Timestamped names sort chronologically
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        for (int i = 0; i < files.length - maxFiles; i++) {
+            if (!files[i].delete()) {
+                plugin.getLogger().warning("Could not delete old audit log " + files[i].getName());
+            }
+        }
+    }
+}
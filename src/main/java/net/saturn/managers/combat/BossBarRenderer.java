@@ -0,0 +1,105 @@
+package net.saturn.managers.combat;
+
+import net.saturn.config.MessageTemplate;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BossBar;
+
+/**
+ * Renders combat boss bars while sending as few packets as possible.
+ * Titles are pre-rendered for every remaining-second value, and each bar remembers what it last
+ * displayed so only the attributes that actually changed are pushed to the client.
+ */
+public class BossBarRenderer {
+
+    private static final int PROGRESS_STEPS = 100; // Smooth progress is quantized to 1% to bound packet volume
+    private static final int WARNING_SECONDS = 5;
+
+    private MessageTemplate template;
+    private String[] titles = new String[0];
+
+    /**
+     * Pre-renders the titles for 0..maxSeconds, only when the template or range changed
+     */
+    public void prepare(MessageTemplate template, int maxSeconds) {
+        if (this.template == template && titles.length > maxSeconds) {
+            return;
+        }
+
+        String[] rendered = new String[maxSeconds + 1];
+        for (int seconds = 0; seconds <= maxSeconds; seconds++) {
+            rendered[seconds] = template.format(seconds);
+        }
+
+        this.template = template;
+        this.titles = rendered;
+    }
+
+    public String title(int seconds) {
+        if (seconds >= 0 && seconds < titles.length) {
+            return titles[seconds];
+        }
+        return template.format(seconds);
+    }
+
+    /**
+     * Pushes the current state to a bar
+     * @param remainingMillis Time left on the tag
+     * @param smooth Whether progress follows milliseconds instead of whole seconds
+     */
+    public void render(Bar bar, long remainingMillis, boolean smooth) {
+        long durationMillis = bar.durationMillis;
+        int seconds = (int) Math.max(0, remainingMillis / 1000);
+
+        if (seconds != bar.seconds) {
+            bar.seconds = seconds;
+            bar.bossBar.setTitle(title(seconds));
+        }
+
+        double fraction = smooth
+                ? (double) remainingMillis / durationMillis
+                : (double) (seconds * 1000L) / durationMillis;
+        int step = (int) Math.round(Math.max(0.0, Math.min(1.0, fraction)) * PROGRESS_STEPS);
+        if (step != bar.progressStep) {
+            bar.progressStep = step;
+            bar.bossBar.setProgress((double) step / PROGRESS_STEPS);
+        }
+
+        // Change color based on remaining time
+        BarColor color = seconds <= WARNING_SECONDS ? BarColor.YELLOW : BarColor.RED;
+        if (color != bar.color) {
+            bar.color = color;
+            bar.bossBar.setColor(color);
+        }
+    }
+
+    /**
+     * A boss bar together with the state last sent to its viewer
+     */
+    public static final class Bar {
+        private final BossBar bossBar;
+        private int seconds;
+        private int progressStep;
+        private BarColor color;
+        private long durationMillis; // Full length of the tag, the progress fraction is relative to it
+
+        public Bar(BossBar bossBar, int seconds, long durationMillis) {
+            this.bossBar = bossBar;
+            this.seconds = seconds;
+            this.durationMillis = Math.max(1L, durationMillis);
+            this.progressStep = PROGRESS_STEPS;
+            this.color = bossBar.getColor();
+        }
+
+        public BossBar getBossBar() {
+            return bossBar;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public void setDurationMillis(long durationMillis) {
+            this.durationMillis = Math.max(1L, durationMillis);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package net.saturn.managers.combat;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Immutable table of combat durations: WorldGuard region, then damage cause, then world, then the global
+ * {@code combat-duration}.
+ */
+public final class CombatDurationPolicy {
+
+    public static final int NO_OVERRIDE = 0;
+
+    private final int defaultSeconds;
+    private final int maxSeconds;
+    private final Map<String, Integer> worldSeconds;
+    private final int[] causeSeconds;
+    private final RegionDurationIndex regionIndex; // Null without WorldGuard or region overrides
+
+    private CombatDurationPolicy(int defaultSeconds, Map<String, Integer> worldSeconds, int[] causeSeconds,
+                                 RegionDurationIndex regionIndex, int maxSeconds) {
+        this.defaultSeconds = defaultSeconds;
+        this.worldSeconds = worldSeconds;
+        this.causeSeconds = causeSeconds;
+        this.regionIndex = regionIndex;
+        this.maxSeconds = maxSeconds;
+    }
+
+    public static CombatDurationPolicy load(FileConfiguration config, boolean worldGuardEnabled, Logger logger) {
+        int defaultSeconds = Math.max(1, config.getInt("combat-duration", 15));
+        int maxSeconds = defaultSeconds;
+
+        Map<String, Integer> worlds = new HashMap<>();
+        ConfigurationSection worldSection = config.getConfigurationSection("combat-duration-overrides.worlds");
+        if (worldSection != null) {
+            for (String world : worldSection.getKeys(false)) {
+                int seconds = Math.max(1, worldSection.getInt(world));
+                worlds.put(world, seconds);
+                maxSeconds = Math.max(maxSeconds, seconds);
+            }
+        }
+
+        int[] causes = new int[EntityDamageEvent.DamageCause.values().length];
+        ConfigurationSection causeSection = config.getConfigurationSection("combat-duration-overrides.damage-causes");
+        if (causeSection != null) {
+            for (String cause : causeSection.getKeys(false)) {
+                try {
+                    int seconds = Math.max(1, causeSection.getInt(cause));
+                    causes[EntityDamageEvent.DamageCause.valueOf(cause.toUpperCase(Locale.ROOT)).ordinal()] = seconds;
+                    maxSeconds = Math.max(maxSeconds, seconds);
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Unknown damage cause in combat-duration-overrides: " + cause);
+                }
+            }
+        }
+
+        // Either a world name holding region ids, which only apply in that world, or a region id for every world
+        Map<String, Map<String, Integer>> worldRegions = new HashMap<>();
+        Map<String, Integer> regions = new HashMap<>();
+        ConfigurationSection regionSection = config.getConfigurationSection("combat-duration-overrides.regions");
+        if (regionSection != null) {
+            for (String key : regionSection.getKeys(false)) {
+                ConfigurationSection scoped = regionSection.getConfigurationSection(key);
+                if (scoped == null) {
+                    int seconds = Math.max(1, regionSection.getInt(key));
+                    regions.put(key.toLowerCase(Locale.ROOT), seconds);
+                    maxSeconds = Math.max(maxSeconds, seconds);
+                    continue;
+                }
+                Map<String, Integer> inWorld = worldRegions.computeIfAbsent(key, world -> new HashMap<>());
+                for (String region : scoped.getKeys(false)) {
+                    int seconds = Math.max(1, scoped.getInt(region));
+                    inWorld.put(region.toLowerCase(Locale.ROOT), seconds);
+                    maxSeconds = Math.max(maxSeconds, seconds);
+                }
+            }
+        }
+
+        // Only touch WorldGuard classes when it is installed and actually needed
+        RegionDurationIndex regionIndex = worldGuardEnabled && (!regions.isEmpty() || !worldRegions.isEmpty())
+                ? new RegionDurationIndex(worldRegions, regions)
+                : null;
+
+        return new CombatDurationPolicy(defaultSeconds, Map.copyOf(worlds), causes, regionIndex, maxSeconds);
+    }
+
+    /**
+     * @param location where the player was when tagged, may be null
+     * @param cause    the damage that caused the tag, may be null
+     * @return the tag duration in seconds
+     */
+    public int durationFor(Location location, EntityDamageEvent.DamageCause cause) {
+        int seconds = overrideFor(location, cause);
+        return seconds != NO_OVERRIDE ? seconds : defaultSeconds;
+    }
+
+    /**
+     * @return the duration the first matching override gives, or {@link #NO_OVERRIDE} if the global one applies
+     */
+    public int overrideFor(Location location, EntityDamageEvent.DamageCause cause) {
+        if (regionIndex != null && location != null) {
+            int seconds = regionIndex.durationAt(location);
+            if (seconds != NO_OVERRIDE) {
+                return seconds;
+            }
+        }
+
+        if (cause != null) {
+            int seconds = causeSeconds[cause.ordinal()];
+            if (seconds != NO_OVERRIDE) {
+                return seconds;
+            }
+        }
+
+        if (location != null) {
+            World world = location.getWorld();
+            Integer seconds = world != null ? worldSeconds.get(world.getName()) : null;
+            if (seconds != null) {
+                return seconds;
+            }
+        }
+
+        return NO_OVERRIDE;
+    }
+
+    /**
+     * Re-reads the override regions from WorldGuard, used once it is up and whenever regions may have changed
+     */
+    public void refreshRegions() {
+        if (regionIndex != null) {
+            regionIndex.rebuild();
+        }
+    }
+
+    public int getDefaultSeconds() {
+        return defaultSeconds;
+    }
+
+    /**
+     * @return the longest duration any override can produce, used to size boss bar title caches
+     */
+    public int getMaxSeconds() {
+        return maxSeconds;
+    }
+}
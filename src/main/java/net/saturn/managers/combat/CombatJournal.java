@@ -0,0 +1,350 @@
+package net.saturn.managers.combat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Memory-mapped append-only log of combat tags, so running tags survive a crash or restart.
+ * Not thread-safe, callers hold the combat manager's lock.
+ */
+public class CombatJournal {
+
+    private static final int MAGIC = 0x42434C4A; // "BCLJ"
+    private static final int HEADER_SIZE = 8; // magic + version
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = 1 + 8 + 8 + 8; // type, uuid, deadline
+    private static final byte END = 0;
+    private static final byte TAG = 1;
+    private static final byte UNTAG = 2;
+
+    private final File file;
+    private final int capacity;
+    private final int snapshotLimit; // The rest is kept free for appends, during and after a compaction
+    private final Logger logger;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int compactedLength; // Where the log ended right after the last compaction
+    private Compaction compaction; // In flight, null otherwise
+    private boolean closed;
+
+    public CombatJournal(File file, int capacity, Logger logger) {
+        this.file = file;
+        this.capacity = capacity;
+        this.snapshotLimit = capacity - capacity / 4;
+        this.logger = logger;
+    }
+
+    /**
+     * Opens the journal, replays it and compacts it down to the live tags, on the calling thread.
+     *
+     * @return every tag whose deadline is still after {@code now}
+     */
+    public Map<UUID, Long> open(long now) {
+        Map<UUID, Long> live = new HashMap<>();
+        closed = false;
+        try {
+            map(file);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                // New or unreadable file, start over
+                reset(buffer);
+                position = HEADER_SIZE;
+                compactedLength = HEADER_SIZE;
+                return live;
+            }
+
+            position = HEADER_SIZE;
+            while (position + RECORD_SIZE <= capacity) {
+                byte type = buffer.get(position);
+                if (type != TAG && type != UNTAG) {
+                    break;
+                }
+
+                UUID uuid = new UUID(buffer.getLong(position + 1), buffer.getLong(position + 9));
+                if (type == TAG) {
+                    live.put(uuid, buffer.getLong(position + 17));
+                } else {
+                    live.remove(uuid);
+                }
+                position += RECORD_SIZE;
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not open combat journal, tags will not survive a restart", e);
+            close();
+            return live;
+        }
+
+        live.values().removeIf(deadline -> deadline <= now);
+        compact(live);
+        return live;
+    }
+
+    public void recordTag(UUID uuid, long deadline) {
+        append(TAG, uuid, deadline);
+    }
+
+    public void recordUntag(UUID uuid) {
+        append(UNTAG, uuid, 0L);
+    }
+
+    /**
+     * @return true once appends have used half the room the last compaction left, so a large live set does not
+     * make every tick compact again
+     */
+    public boolean needsCompaction() {
+        return buffer != null && compaction == null && position > compactedLength + (capacity - compactedLength) / 2;
+    }
+
+    /**
+     * Replaces the log with one TAG record per live entry, on the calling thread. Only {@link #open} does this,
+     * the ticker goes through {@link #beginCompaction} so the disk work stays off its thread.
+     */
+    private void compact(Map<UUID, Long> live) {
+        Snapshot snapshot = new Snapshot();
+        live.forEach(snapshot::add);
+        Compaction pending = begin(snapshot);
+        try {
+            pending.writeSnapshot();
+            detach(pending);
+            pending.replace();
+            attach(pending);
+        } catch (IOException e) {
+            abort(pending, e);
+        }
+    }
+
+    /**
+     * Snapshots the live entries into memory. The returned compaction is carried out by calling, in order,
+     * {@link Compaction#writeSnapshot()} without the lock, {@link #detach} with it, {@link Compaction#replace()}
+     * without it and {@link #attach} with it; {@link #abort} with the lock on any failure.
+     */
+    public Compaction beginCompaction(Iterable<CombatTagWheel.Entry> live) {
+        Snapshot snapshot = new Snapshot();
+        for (CombatTagWheel.Entry entry : live) {
+            snapshot.add(entry.getUniqueId(), entry.getDeadline());
+        }
+        return begin(snapshot);
+    }
+
+    private Compaction begin(Snapshot snapshot) {
+        if (snapshot.dropped > 0) {
+            logger.warning("Combat journal is too small for " + (snapshot.length / RECORD_SIZE + snapshot.dropped)
+                    + " running tags, " + snapshot.dropped + " will not survive a restart");
+        }
+        snapshot.records.limit(snapshot.length);
+        compaction = new Compaction(snapshot.records, position);
+        return compaction;
+    }
+
+    /**
+     * Copies out the records appended since the snapshot and lets go of the old mapping, so the file can be
+     * replaced. Until {@link #attach}, appends are held in memory.
+     * @return false if the journal was closed meanwhile, the compaction is then dropped and the old log kept
+     */
+    public boolean detach(Compaction pending) {
+        if (buffer == null) {
+            compaction = null;
+            pending.discard();
+            return false;
+        }
+
+        int length = Math.min(position - pending.mark, pending.tail.capacity());
+        pending.tail.put(0, buffer, pending.mark, length);
+        pending.tailLength = length;
+        pending.writtenLength = length;
+
+        // No force, the new file is written from the copy. A live mapping cannot be replaced on every platform.
+        buffer = null;
+        closeChannel();
+        return true;
+    }
+
+    /**
+     * Maps the replaced log and replays the records appended while it was being replaced
+     */
+    public void attach(Compaction pending) {
+        compaction = null;
+        try {
+            map(file);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not reopen compacted combat journal, journaling disabled", e);
+            close();
+            return;
+        }
+
+        compactedLength = pending.records.limit();
+        position = pending.records.limit() + pending.writtenLength;
+        for (int at = pending.writtenLength; at + RECORD_SIZE <= pending.tailLength; at += RECORD_SIZE) {
+            ByteBuffer tail = pending.tail;
+            UUID uuid = new UUID(tail.getLong(at + 1), tail.getLong(at + 9));
+            append(tail.get(at), uuid, tail.getLong(at + 17));
+        }
+
+        if (closed) {
+            close();
+        }
+    }
+
+    public void abort(Compaction pending, IOException cause) {
+        logger.log(Level.SEVERE, "Could not compact combat journal, journaling disabled", cause);
+        compaction = null;
+        pending.discard();
+        close();
+    }
+
+    /**
+     * Flushes and unmaps the journal, leaving its records for the next startup
+     */
+    public void close() {
+        closed = true;
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to do with it
+            }
+            channel = null;
+        }
+    }
+
+    private void append(byte type, UUID uuid, long deadline) {
+        if (buffer == null && compaction != null) {
+            // The file is being replaced, hold the record for attach
+            if (compaction.tailLength + RECORD_SIZE <= compaction.tail.capacity()) {
+                write(compaction.tail, compaction.tailLength, type, uuid, deadline);
+                compaction.tailLength += RECORD_SIZE;
+            }
+            return;
+        }
+        if (buffer == null) {
+            return;
+        }
+        if (position + RECORD_SIZE > capacity) {
+            // Only reachable if appends outran the room a compaction left
+            logger.warning("Combat journal is full, dropping record until the next compaction");
+            return;
+        }
+
+        write(buffer, position, type, uuid, deadline);
+        position += RECORD_SIZE;
+    }
+
+    private void map(File target) throws IOException {
+        target.getParentFile().mkdirs();
+        channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer source, long at) throws IOException {
+        while (source.hasRemaining()) {
+            at += out.write(source, at);
+        }
+    }
+
+    private void reset(ByteBuffer target) {
+        // A fresh mapping reads as zeroes, so only the header and the first record's type byte matter
+        target.putInt(0, MAGIC);
+        target.putInt(4, VERSION);
+        target.put(HEADER_SIZE, END);
+    }
+
+    private static void write(ByteBuffer target, int at, byte type, UUID uuid, long deadline) {
+        target.putLong(at + 1, uuid.getMostSignificantBits());
+        target.putLong(at + 9, uuid.getLeastSignificantBits());
+        target.putLong(at + 17, deadline);
+        if (at + RECORD_SIZE < target.capacity()) {
+            target.put(at + RECORD_SIZE, END); // Terminate before publishing, in case stale records follow
+        }
+        target.put(at, type);
+    }
+
+    /**
+     * The live tags to compact down to, up to the snapshot limit
+     */
+    private final class Snapshot {
+
+        private final ByteBuffer records = ByteBuffer.allocate(capacity);
+        private int length = HEADER_SIZE;
+        private int dropped;
+
+        private Snapshot() {
+            reset(records);
+        }
+
+        private void add(UUID uuid, long deadline) {
+            if (length + RECORD_SIZE > snapshotLimit) {
+                dropped++;
+                return;
+            }
+            write(records, length, TAG, uuid, deadline);
+            length += RECORD_SIZE;
+        }
+    }
+
+    /**
+     * A compaction in flight. Its file work runs unlocked and only ever touches the temporary file
+     * until that is moved over the log.
+     */
+    public final class Compaction {
+
+        private final ByteBuffer records; // Header plus the snapshot, limited to its length
+        private final int mark; // Log position when the snapshot was taken
+        private final ByteBuffer tail; // Records appended after the snapshot
+        private final File temp;
+        private int tailLength;
+        private int writtenLength; // Of the tail, copied into the new file before the move
+
+        private Compaction(ByteBuffer records, int mark) {
+            this.records = records;
+            this.mark = mark;
+            this.tail = ByteBuffer.allocate(capacity - records.limit());
+            this.temp = new File(file.getPath() + ".tmp");
+        }
+
+        /**
+         * Writes the snapshot to the temporary file and forces it to disk
+         */
+        public void writeSnapshot() throws IOException {
+            try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(out, records.duplicate().position(0), 0);
+                out.force(true);
+            }
+        }
+
+        /**
+         * Adds the records copied out on detach and moves the file over the log
+         */
+        public void replace() throws IOException {
+            try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                writeFully(out, tail.duplicate().position(0).limit(writtenLength), records.limit());
+                out.force(true);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private void discard() {
+            temp.delete();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.saturn.managers.combat;
+
+import net.saturn.api.CombatService;
+import net.saturn.managers.CombatManager;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only {@link CombatService} backed by the plugin's {@link CombatManager}
+ */
+public class CombatServiceView implements CombatService {
+
+    private final CombatManager combatManager;
+
+    public CombatServiceView(CombatManager combatManager) {
+        this.combatManager = combatManager;
+    }
+
+    @Override
+    public boolean isInCombat(UUID uuid) {
+        return combatManager.isInCombat(uuid);
+    }
+
+    @Override
+    public int getRemainingTime(UUID uuid) {
+        return combatManager.getRemainingTime(uuid);
+    }
+
+    @Override
+    public UUID getLastAttacker(UUID uuid) {
+        return combatManager.getLastAttacker(uuid);
+    }
+
+    @Override
+    public int getCombatDuration() {
+        return combatManager.getCombatDuration();
+    }
+
+    @Override
+    public Set<UUID> getTaggedPlayers() {
+        return combatManager.getTaggedPlayers();
+    }
+}
@@ -0,0 +1,150 @@
+package net.saturn.managers.combat;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.UUID;
+
+/**
+ * Open-addressing table from a player's UUID to their combat expiry time.
+ * Reads are lock-free and safe from any thread, writes are serialized by the caller.
+ */
+public class CombatTagTable {
+
+    private static final int MIN_CAPACITY = 64;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle FLAGS = MethodHandles.arrayElementVarHandle(boolean[].class);
+
+    private volatile Slots slots;
+    private int usedSlots;
+
+    public CombatTagTable() {
+        this.slots = new Slots(MIN_CAPACITY);
+    }
+
+    /**
+     * @return the expiry time for the player, or 0 if they are not tagged
+     */
+    public long get(UUID uuid) {
+        Slots current = slots;
+        int index = current.indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return index >= 0 ? (long) LONGS.getAcquire(current.expiry, index) : 0L;
+    }
+
+    public void put(UUID uuid, long expireTime) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+
+        Slots current = slots;
+        int index = current.indexOf(most, least);
+        if (index >= 0) {
+            LONGS.setRelease(current.expiry, index, expireTime);
+            return;
+        }
+
+        // Keep the load factor at or below 1/2 so probes stay short
+        if ((usedSlots + 1) * 2 > current.capacity()) {
+            current = rebuild(current);
+        }
+        current.insert(most, least, expireTime);
+        usedSlots++;
+    }
+
+    /**
+     * Clears the expiry time for a player
+     * @return true if the player was tagged
+     */
+    public boolean remove(UUID uuid) {
+        Slots current = slots;
+        int index = current.indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (index < 0 || (long) LONGS.getAcquire(current.expiry, index) == 0L) {
+            return false;
+        }
+        LONGS.setRelease(current.expiry, index, 0L);
+        return true;
+    }
+
+    public void clear() {
+        slots = new Slots(MIN_CAPACITY);
+        usedSlots = 0;
+    }
+
+    /**
+     * Rehashes the live entries into fresh arrays, dropping untagged keys and growing only if the
+     * live entries need it, then publishes the new arrays in one volatile write
+     */
+    private Slots rebuild(Slots old) {
+        int live = 0;
+        for (int i = 0; i < old.capacity(); i++) {
+            if (old.used[i] && old.expiry[i] != 0L) {
+                live++;
+            }
+        }
+
+        int capacity = MIN_CAPACITY;
+        while (capacity < (live + 1) * 4) {
+            capacity <<= 1;
+        }
+
+        Slots rebuilt = new Slots(capacity);
+        for (int i = 0; i < old.capacity(); i++) {
+            if (old.used[i] && old.expiry[i] != 0L) {
+                rebuilt.insert(old.mostBits[i], old.leastBits[i], old.expiry[i]);
+            }
+        }
+
+        usedSlots = live;
+        slots = rebuilt;
+        return rebuilt;
+    }
+
+    private static int hash(long most, long least) {
+        long h = most ^ least;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static final class Slots {
+        private final long[] mostBits;
+        private final long[] leastBits;
+        private final long[] expiry;
+        private final boolean[] used;
+        private final int mask;
+
+        private Slots(int capacity) {
+            this.mostBits = new long[capacity];
+            this.leastBits = new long[capacity];
+            this.expiry = new long[capacity];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private int indexOf(long most, long least) {
+            int index = hash(most, least) & mask;
+            while ((boolean) FLAGS.getAcquire(used, index)) {
+                if (mostBits[index] == most && leastBits[index] == least) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(long most, long least, long expireTime) {
+            int index = hash(most, least) & mask;
+            while (used[index]) {
+                index = (index + 1) & mask;
+            }
+
+            mostBits[index] = most;
+            leastBits[index] = least;
+            LONGS.setRelease(expiry, index, expireTime);
+            FLAGS.setRelease(used, index, true); // Publish the slot last
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package net.saturn.managers.combat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel holding combat tag deadlines, one slot per server tick.
+ */
+public class CombatTagWheel {
+
+    public static final long TICK_MS = 50L;
+
+    private final Entry[] slots;
+    private final int mask;
+    private final Map<UUID, Entry> entries;
+    private long cursorTick = -1; // Next tick that has not been processed yet
+
+    public CombatTagWheel(int slotCount) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slotCount);
+        }
+        this.slots = new Entry[slotCount];
+        this.mask = slotCount - 1;
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Schedules (or reschedules) the deadline for a player
+     * @return true if the player had no pending deadline before this call
+     */
+    public boolean schedule(UUID uuid, long deadline) {
+        Entry entry = entries.get(uuid);
+        boolean added = entry == null;
+
+        if (added) {
+            entry = new Entry(uuid);
+            entries.put(uuid, entry);
+        } else {
+            unlink(entry);
+        }
+
+        entry.deadline = deadline;
+        link(entry);
+        return added;
+    }
+
+    /**
+     * Removes a pending deadline without firing the expiry callback
+     * @return true if the player had a pending deadline
+     */
+    public boolean cancel(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * @return the deadline for the player, or 0 if none is pending
+     */
+    public long getDeadline(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null ? entry.deadline : 0L;
+    }
+
+    public boolean contains(UUID uuid) {
+        return entries.containsKey(uuid);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Advances the wheel to the given time and expires every due entry.
+     * Only the slots between the previous call and now are visited, so the cost is
+     * proportional to the number of expired entries rather than the number of tags.
+     * @return the number of expired entries
+     */
+    public int advance(long now, Consumer<UUID> onExpire) {
+        long targetTick = now / TICK_MS;
+        if (cursorTick < 0) {
+            cursorTick = targetTick;
+        }
+        if (targetTick < cursorTick) {
+            return 0;
+        }
+
+        // After a long stall every slot is due once, never walk the wheel more than one lap
+        long lastTick = Math.min(targetTick, cursorTick + slots.length - 1);
+        int expired = 0;
+
+        for (long tick = cursorTick; tick <= lastTick; tick++) {
+            int slot = (int) (tick & mask);
+            Entry entry = slots[slot];
+
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.deadlineTick <= targetTick) {
+                    unlink(entry);
+                    entries.remove(entry.uuid);
+                    onExpire.accept(entry.uuid);
+                    expired++;
+                }
+                entry = next;
+            }
+        }
+
+        cursorTick = targetTick + 1;
+        return expired;
+    }
+
+    public void clear() {
+        entries.clear();
+        Arrays.fill(slots, null);
+    }
+
+    private void link(Entry entry) {
+        // Round up so an entry never fires before its deadline
+        long tick = (entry.deadline + TICK_MS - 1) / TICK_MS;
+        if (cursorTick >= 0 && tick < cursorTick) {
+            tick = cursorTick;
+        }
+
+        int slot = (int) (tick & mask);
+        entry.deadlineTick = tick;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = slots[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[slot] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.slot < 0) {
+            return;
+        }
+
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+
+        entry.prev = null;
+        entry.next = null;
+        entry.slot = -1;
+    }
+
+    public static final class Entry {
+        private final UUID uuid;
+        private long deadline;
+        private long deadlineTick;
+        private int slot = -1;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        public UUID getUniqueId() {
+            return uuid;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+}
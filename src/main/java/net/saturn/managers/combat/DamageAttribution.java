@@ -0,0 +1,201 @@
+package net.saturn.managers.combat;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent attackers of each tagged player, for kill credit. Hits go into pooled fixed-size rings and allocate nothing.
+ */
+public class DamageAttribution {
+
+    private static final int RING_SIZE = 8;
+    private static final int MAX_POOLED = 64;
+
+    private final Map<UUID, AttackerRing> rings = new ConcurrentHashMap<>();
+    private final ArrayDeque<AttackerRing> pool = new ArrayDeque<>();
+
+    /**
+     * Records a hit, safe from any thread
+     */
+    public void record(UUID victim, UUID attacker, double damage, long time) {
+        AttackerRing ring = rings.get(victim);
+        if (ring == null) {
+            // Only the first hit on a victim takes this path
+            AttackerRing created = borrow();
+            ring = rings.putIfAbsent(victim, created);
+            if (ring == null) {
+                ring = created;
+            } else {
+                release(created);
+            }
+        }
+
+        ring.record(attacker.getMostSignificantBits(), attacker.getLeastSignificantBits(), damage, time);
+    }
+
+    /**
+     * Picks the online player to credit for the victim's death.
+     *
+     * @param since     hits before this time are ignored
+     * @param strongest credit whoever dealt the most damage instead of whoever hit last
+     * @return the killer, or null if nobody eligible hit the victim
+     */
+    public Player findKiller(UUID victim, long since, boolean strongest) {
+        AttackerRing ring = rings.get(victim);
+        if (ring == null) {
+            return null;
+        }
+
+        synchronized (ring) {
+            return strongest ? ring.strongest(since) : ring.latest(since);
+        }
+    }
+
+    /**
+     * Forgets the victim's attackers and returns their ring to the pool
+     */
+    public void clear(UUID victim) {
+        AttackerRing ring = rings.remove(victim);
+        if (ring != null) {
+            release(ring);
+        }
+    }
+
+    public void clearAll() {
+        rings.clear();
+        synchronized (pool) {
+            pool.clear();
+        }
+    }
+
+    private AttackerRing borrow() {
+        AttackerRing ring;
+        synchronized (pool) {
+            ring = pool.pollFirst();
+        }
+        if (ring == null) {
+            return new AttackerRing();
+        }
+
+        // A late hit may have landed after the ring was released
+        synchronized (ring) {
+            ring.reset();
+        }
+        return ring;
+    }
+
+    private void release(AttackerRing ring) {
+        synchronized (ring) {
+            ring.reset();
+        }
+        synchronized (pool) {
+            if (pool.size() < MAX_POOLED) {
+                pool.addFirst(ring);
+            }
+        }
+    }
+
+    private static final class AttackerRing {
+
+        private final long[] attackerMost = new long[RING_SIZE];
+        private final long[] attackerLeast = new long[RING_SIZE];
+        private final long[] times = new long[RING_SIZE];
+        private final double[] damage = new double[RING_SIZE];
+        private int next; // Slot the next hit is written to
+        private int count;
+
+        synchronized void record(long most, long least, double amount, long time) {
+            attackerMost[next] = most;
+            attackerLeast[next] = least;
+            times[next] = time;
+            damage[next] = amount;
+            next = (next + 1) % RING_SIZE;
+            if (count < RING_SIZE) {
+                count++;
+            }
+        }
+
+        void reset() {
+            next = 0;
+            count = 0;
+        }
+
+        /**
+         * Newest to oldest, the first attacker that is still online wins
+         */
+        Player latest(long since) {
+            for (int i = 0; i < count; i++) {
+                int slot = slot(i);
+                if (times[slot] < since) {
+                    break; // Everything older is outside the window too
+                }
+
+                Player attacker = Bukkit.getPlayer(new UUID(attackerMost[slot], attackerLeast[slot]));
+                if (attacker != null) {
+                    return attacker;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Sums damage per attacker inside the window, ties go to the more recent attacker
+         */
+        Player strongest(long since) {
+            Player best = null;
+            double bestDamage = 0;
+
+            for (int i = 0; i < count; i++) {
+                int slot = slot(i);
+                if (times[slot] < since) {
+                    break;
+                }
+                if (seenBefore(i, slot)) {
+                    continue; // Already totalled with a newer hit from the same attacker
+                }
+
+                double total = 0;
+                for (int j = i; j < count; j++) {
+                    int other = slot(j);
+                    if (times[other] < since) {
+                        break;
+                    }
+                    if (attackerMost[other] == attackerMost[slot] && attackerLeast[other] == attackerLeast[slot]) {
+                        total += damage[other];
+                    }
+                }
+
+                if (best == null || total > bestDamage) {
+                    Player attacker = Bukkit.getPlayer(new UUID(attackerMost[slot], attackerLeast[slot]));
+                    if (attacker != null) {
+                        best = attacker;
+                        bestDamage = total;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private boolean seenBefore(int index, int slot) {
+            for (int i = 0; i < index; i++) {
+                int other = slot(i);
+                if (attackerMost[other] == attackerMost[slot] && attackerLeast[other] == attackerLeast[slot]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the ring slot holding the hit {@code age} positions before the newest one
+         */
+        private int slot(int age) {
+            return (next - 1 - age + RING_SIZE) % RING_SIZE;
+        }
+    }
+}
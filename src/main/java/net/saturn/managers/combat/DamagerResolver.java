@@ -0,0 +1,130 @@
+package net.saturn.managers.combat;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.AreaEffectCloud;
+import org.bukkit.entity.EnderCrystal;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.entity.Tameable;
+import org.bukkit.entity.minecart.ExplosiveMinecart;
+import org.bukkit.event.entity.EntityDamageByBlockEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Works out which player is behind a damage event, following shooters, igniters and owners.
+ */
+public class DamagerResolver {
+
+    private static final int MAX_CHAIN = 4; // A fire arrow lighting TNT is three links, leave some room
+    private static final Function<Entity, Entity> UNKNOWN = damager -> null;
+
+    private final HazardOwnerCache hazards;
+    private final List<Registration<?>> registrations = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, Function<Entity, Entity>> resolvedByClass = new ConcurrentHashMap<>();
+
+    public DamagerResolver(HazardOwnerCache hazards) {
+        this.hazards = hazards;
+
+        register(Projectile.class, projectile -> projectile.getShooter() instanceof Entity shooter ? shooter : null);
+        register(TNTPrimed.class, tnt -> tnt.getSource() != null ? tnt.getSource() : owner(tnt.getUniqueId()));
+        register(AreaEffectCloud.class, cloud -> cloud.getSource() instanceof Entity source ? source : null);
+        register(EnderCrystal.class, crystal -> owner(crystal.getUniqueId()));
+        register(ExplosiveMinecart.class, minecart -> owner(minecart.getUniqueId()));
+        register(Tameable.class, pet -> pet.getOwner() instanceof Entity owner ? owner : null);
+    }
+
+    /**
+     * Adds a resolver for a damager type. Later registrations take precedence over earlier ones for the
+     * classes they match, so a more specific resolver can be layered over a general one.
+     */
+    public <T extends Entity> void register(Class<T> type, Function<? super T, ? extends Entity> next) {
+        registrations.add(new Registration<>(type, next));
+        resolvedByClass.clear();
+    }
+
+    public HazardOwnerCache getHazards() {
+        return hazards;
+    }
+
+    /**
+     * @return the player responsible for the damage, or null if it was not caused by a player
+     */
+    public Player resolve(EntityDamageEvent event) {
+        if (event instanceof EntityDamageByEntityEvent byEntity) {
+            return resolve(byEntity.getDamager());
+        }
+        if (event instanceof EntityDamageByBlockEvent byBlock) {
+            // Exploded beds and anchors are already gone, their captured state still has the position
+            BlockState state = byBlock.getDamagerBlockState();
+            Block block = byBlock.getDamager();
+            if (state != null) {
+                return online(hazards.get(HazardOwnerCache.blockKey(state.getLocation())));
+            }
+            return block != null ? online(hazards.get(HazardOwnerCache.blockKey(block))) : null;
+        }
+        if (event.getCause() == EntityDamageEvent.DamageCause.FIRE_TICK) {
+            return online(hazards.get(HazardOwnerCache.burningKey(event.getEntity().getUniqueId())));
+        }
+        return null;
+    }
+
+    /**
+     * @return the player behind the damager, or null if the chain does not lead to a player
+     */
+    public Player resolve(Entity damager) {
+        Entity current = damager;
+        for (int link = 0; link < MAX_CHAIN && current != null; link++) {
+            if (current instanceof Player player) {
+                return player;
+            }
+            current = resolverFor(current.getClass()).apply(current);
+        }
+        return null;
+    }
+
+    private Function<Entity, Entity> resolverFor(Class<?> type) {
+        Function<Entity, Entity> resolver = resolvedByClass.get(type);
+        if (resolver == null) {
+            resolver = lookup(type);
+            resolvedByClass.put(type, resolver);
+        }
+        return resolver;
+    }
+
+    private Function<Entity, Entity> lookup(Class<?> type) {
+        for (int i = registrations.size() - 1; i >= 0; i--) {
+            Registration<?> registration = registrations.get(i);
+            if (registration.type().isAssignableFrom(type)) {
+                return registration::apply;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private Entity owner(UUID hazard) {
+        return online(hazards.get(hazard));
+    }
+
+    private static Player online(UUID player) {
+        return player != null ? Bukkit.getPlayer(player) : null;
+    }
+
+    private record Registration<T extends Entity>(Class<T> type, Function<? super T, ? extends Entity> next) {
+
+        Entity apply(Entity damager) {
+            return next.apply(type.cast(damager));
+        }
+    }
+}
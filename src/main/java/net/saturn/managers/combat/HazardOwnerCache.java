@@ -0,0 +1,80 @@
+package net.saturn.managers.combat;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded, thread-safe cache of which player placed or lit a hazard that deals damage later.
+ */
+public class HazardOwnerCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Object, Owner> owners = new LinkedHashMap<>();
+
+    public HazardOwnerCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public synchronized void put(Object key, UUID owner, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        owners.remove(key); // Re-insert at the tail so eviction order stays oldest-first
+        owners.put(key, new Owner(owner, now + ttlMillis));
+
+        Iterator<Owner> iterator = owners.values().iterator();
+        while (iterator.hasNext()) {
+            Owner eldest = iterator.next();
+            if (owners.size() <= maxEntries && eldest.expiresAt() > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @return the responsible player, or null if unknown or expired
+     */
+    public synchronized UUID get(Object key) {
+        Owner owner = owners.get(key);
+        if (owner == null) {
+            return null;
+        }
+        if (owner.expiresAt() <= System.currentTimeMillis()) {
+            owners.remove(key);
+            return null;
+        }
+        return owner.player();
+    }
+
+    public synchronized void clear() {
+        owners.clear();
+    }
+
+    public static Object blockKey(Block block) {
+        return new BlockKey(block.getWorld().getUID(), block.getX(), block.getY(), block.getZ());
+    }
+
+    public static Object blockKey(Location location) {
+        return new BlockKey(location.getWorld().getUID(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Key for "who set this entity on fire"
+     */
+    public static Object burningKey(UUID entity) {
+        return new BurningKey(entity);
+    }
+
+    private record Owner(UUID player, long expiresAt) {
+    }
+
+    private record BlockKey(UUID world, int x, int y, int z) {
+    }
+
+    private record BurningKey(UUID entity) {
+    }
+}
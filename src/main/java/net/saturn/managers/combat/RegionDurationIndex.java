@@ -0,0 +1,133 @@
+package net.saturn.managers.combat;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionContainer;
+import com.sk89q.worldguard.protection.regions.RegionType;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-chunk table of the WorldGuard regions that override the combat duration, built from every loaded world
+ * and swapped as a whole, so a lookup tests the few regions touching its chunk and never queries WorldGuard.
+ */
+final class RegionDurationIndex {
+
+    private static final Candidate[] NONE = new Candidate[0];
+    private static final int MAX_CHUNKS_PER_REGION = 16_384; // Larger regions skip the table and are always tested
+
+    private final Map<String, Map<String, Integer>> worldRegionSeconds; // World name -> lower-case region id -> seconds
+    private final Map<String, Integer> regionSeconds; // Lower-case region id -> seconds, in every world
+    private volatile Map<UUID, WorldTable> worlds = Map.of();
+
+    RegionDurationIndex(Map<String, Map<String, Integer>> worldRegionSeconds, Map<String, Integer> regionSeconds) {
+        Map<String, Map<String, Integer>> copy = new HashMap<>();
+        worldRegionSeconds.forEach((world, regions) -> copy.put(world, Map.copyOf(regions)));
+        this.worldRegionSeconds = Map.copyOf(copy);
+        this.regionSeconds = Map.copyOf(regionSeconds);
+    }
+
+    /**
+     * @return the longest override among the regions containing the location, or 0 if none
+     */
+    int durationAt(Location location) {
+        World world = location.getWorld();
+        WorldTable table = world != null ? worlds.get(world.getUID()) : null;
+        if (table == null) {
+            return 0;
+        }
+
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        int seconds = 0;
+        for (Candidate candidate : table.chunks().getOrDefault(chunkKey(x >> 4, z >> 4), NONE)) {
+            if (candidate.region().contains(x, y, z)) {
+                seconds = Math.max(seconds, candidate.seconds());
+            }
+        }
+        for (Candidate candidate : table.oversized()) {
+            if (candidate.region().contains(x, y, z)) {
+                seconds = Math.max(seconds, candidate.seconds());
+            }
+        }
+        return seconds;
+    }
+
+    /**
+     * Re-reads the override regions from WorldGuard for every loaded world. WorldGuard must be enabled.
+     */
+    synchronized void rebuild() {
+        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+        Map<UUID, WorldTable> rebuilt = new HashMap<>();
+        for (World world : Bukkit.getWorlds()) {
+            RegionManager manager = container.get(BukkitAdapter.adapt(world));
+            if (manager != null) {
+                WorldTable table = build(manager, worldRegionSeconds.getOrDefault(world.getName(), Map.of()));
+                if (table != null) {
+                    rebuilt.put(world.getUID(), table);
+                }
+            }
+        }
+        worlds = Map.copyOf(rebuilt);
+    }
+
+    /**
+     * @return the table for one world, or null if no override region exists there
+     */
+    private WorldTable build(RegionManager manager, Map<String, Integer> scoped) {
+        Map<Long, List<Candidate>> chunks = new HashMap<>();
+        List<Candidate> oversized = new ArrayList<>();
+
+        for (ProtectedRegion region : manager.getRegions().values()) {
+            String id = region.getId().toLowerCase(Locale.ROOT);
+            Integer seconds = scoped.getOrDefault(id, regionSeconds.get(id));
+            if (seconds == null || region.getType() == RegionType.GLOBAL) {
+                continue;
+            }
+
+            Candidate candidate = new Candidate(region, seconds);
+            BlockVector3 min = region.getMinimumPoint();
+            BlockVector3 max = region.getMaximumPoint();
+            int minChunkX = min.getX() >> 4, maxChunkX = max.getX() >> 4;
+            int minChunkZ = min.getZ() >> 4, maxChunkZ = max.getZ() >> 4;
+            if ((long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1) > MAX_CHUNKS_PER_REGION) {
+                oversized.add(candidate);
+                continue;
+            }
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    chunks.computeIfAbsent(chunkKey(chunkX, chunkZ), key -> new ArrayList<>(1)).add(candidate);
+                }
+            }
+        }
+
+        if (chunks.isEmpty() && oversized.isEmpty()) {
+            return null;
+        }
+        Map<Long, Candidate[]> table = new HashMap<>(chunks.size() * 2);
+        chunks.forEach((key, candidates) -> table.put(key, candidates.toArray(NONE)));
+        return new WorldTable(table, oversized.toArray(NONE));
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private record Candidate(ProtectedRegion region, int seconds) {
+    }
+
+    private record WorldTable(Map<Long, Candidate[]> chunks, Candidate[] oversized) {
+    }
+}
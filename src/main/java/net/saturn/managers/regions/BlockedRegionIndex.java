@@ -0,0 +1,473 @@
+package net.saturn.managers.regions;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.flags.StateFlag;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionContainer;
+import net.saturn.BetterCombatLogging;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-chunk grid over the regions denying {@link CombatEntryFlag}, a prefilter for move checks.
+ * Immutable and swapped as a whole on rebuild, so lookups are safe from any thread.
+ */
+public class BlockedRegionIndex {
+
+    private static final int MAX_CELLS_PER_REGION = 16_384; // Larger regions skip the grid and are always box-tested
+    private static final int MAX_SWEPT_CELLS = 16; // Longer paths test every region instead of walking the grid
+    private static final Bounds[] NO_BOUNDS = new Bounds[0];
+
+    private final BetterCombatLogging plugin;
+    private volatile State state = State.NONE;
+
+    public BlockedRegionIndex(BetterCombatLogging plugin) {
+        this.plugin = plugin;
+    }
+
+    public synchronized void stop() {
+        state = new State(Map.of(), true, 0, state.generation() + 1);
+    }
+
+    /**
+     * @return true if the block at the location lies inside any blocked region
+     */
+    public boolean isBlocked(Location location) {
+        World world = location.getWorld();
+        return world != null && isBlocked(world, location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public boolean isBlocked(World world, int x, int y, int z) {
+        WorldIndex index = state.worlds().get(world.getUID());
+        return index != null && index.contains(x, y, z);
+    }
+
+    /**
+     * @return the largest box around the location that the index can vouch for in one piece: every block in it is
+     * blocked, or none is. Callers keep it and only ask again once they leave it or it is no longer current.
+     */
+    public Cell cellAt(Location location) {
+        UUID worldId = location.getWorld().getUID();
+        State current = state;
+        WorldIndex index = current.worlds().get(worldId);
+        int x = location.getBlockX(), y = location.getBlockY(), z = location.getBlockZ();
+        if (index == null) {
+            return new Cell(worldId, current.generation(), false,
+                    Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        }
+        return index.cellAt(worldId, current.generation(), x, y, z);
+    }
+
+    /**
+     * @return a counter that changes on every rebuild, for callers caching anything derived from the index
+     */
+    public long getGeneration() {
+        return state.generation();
+    }
+
+    /**
+     * @return true if the cell was handed out by the current build of the index
+     */
+    public boolean isCurrent(Cell cell) {
+        return cell.generation() == state.generation();
+    }
+
+    /**
+     * @return true if the straight path between the two locations passes through any blocked region, which catches
+     * moves fast enough to jump a thin region between two free blocks
+     */
+    public boolean intersects(Location from, Location to) {
+        World world = to.getWorld();
+        if (world == null || !world.equals(from.getWorld())) {
+            return false;
+        }
+        WorldIndex index = state.worlds().get(world.getUID());
+        return index != null && index.intersects(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
+    }
+
+    /**
+     * @return true if no loaded world contains a blocked region
+     */
+    public boolean isEmpty() {
+        return state.empty();
+    }
+
+    /**
+     * Re-reads the blocked regions from WorldGuard for every loaded world
+     */
+    public void rebuild() {
+        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+
+        // Ids older versions listed in blocked-regions.yml become flags once the worlds defining them are loaded.
+        // Done before taking the index lock, migrating holds the blocked list's own.
+        plugin.getRegionManager().migratePending();
+        rebuild(container);
+    }
+
+    /**
+     * @return every region blocked in the world, directly or through a parent, as of the current build. The list
+     * is immutable and shared until the next rebuild.
+     */
+    public List<ProtectedRegion> getBlockedRegions(World world) {
+        WorldIndex index = state.worlds().get(world.getUID());
+        return index != null ? index.resolved : List.of();
+    }
+
+    /**
+     * @return the sorted ids of the regions in the world denying the flag themselves, as of the current build
+     */
+    public List<String> getBlockedRegionIds(World world) {
+        WorldIndex index = state.worlds().get(world.getUID());
+        return index != null ? index.directIds : List.of();
+    }
+
+    /**
+     * @return the number of regions denying the flag themselves across every loaded world
+     */
+    public int getBlockedRegionCount() {
+        return state.directCount();
+    }
+
+    private synchronized void rebuild(RegionContainer container) {
+        Map<UUID, WorldIndex> rebuilt = new HashMap<>();
+        boolean none = true;
+        int direct = 0;
+        for (World world : Bukkit.getWorlds()) {
+            RegionManager manager = container.get(BukkitAdapter.adapt(world));
+            if (manager != null) {
+                WorldIndex index = WorldIndex.build(manager, world.getMinHeight(), world.getMaxHeight());
+                rebuilt.put(world.getUID(), index);
+                none &= index.isEmpty();
+                direct += index.directIds.size();
+            }
+        }
+        state = new State(Map.copyOf(rebuilt), none, direct, state.generation() + 1);
+    }
+
+    /**
+     * One build of the index, published as a whole so readers never mix two builds
+     * @param generation bumped on every rebuild, outdates every cell and list handed out before
+     */
+    private record State(Map<UUID, WorldIndex> worlds, boolean empty, int directCount, long generation) {
+
+        static final State NONE = new State(Map.of(), true, 0, 0);
+    }
+
+    /* ============================================================
+       GRID
+       ============================================================ */
+    private static final class WorldIndex {
+
+        private final List<ProtectedRegion> resolved; // Every region denying the flag when the index was built
+        private final List<String> directIds; // Sorted ids of those denying it themselves
+        private final ChunkCellMap<Bounds[]> cells;
+        private final Bounds[] oversized;
+        private final Bounds[] all;
+        private final int minHeight;
+        private final int maxHeight;
+
+        private WorldIndex(List<ProtectedRegion> resolved, List<String> directIds, ChunkCellMap<Bounds[]> cells,
+                           Bounds[] oversized, Bounds[] all, int minHeight, int maxHeight) {
+            this.resolved = resolved;
+            this.directIds = directIds;
+            this.cells = cells;
+            this.oversized = oversized;
+            this.all = all;
+            this.minHeight = minHeight;
+            this.maxHeight = maxHeight;
+        }
+
+        static WorldIndex build(RegionManager manager, int minHeight, int maxHeight) {
+            List<ProtectedRegion> resolved = new ArrayList<>();
+            List<String> directIds = new ArrayList<>();
+            Map<Long, List<Bounds>> overlapping = new HashMap<>();
+            Set<Long> covered = new HashSet<>();
+            List<Bounds> oversized = new ArrayList<>();
+            List<Bounds> all = new ArrayList<>();
+
+            for (ProtectedRegion region : manager.getRegions().values()) {
+                if (!CombatEntryFlag.isDenied(region)) {
+                    continue;
+                }
+
+                resolved.add(region);
+                if (region.getFlag(CombatEntryFlag.get()) == StateFlag.State.DENY) {
+                    directIds.add(region.getId());
+                }
+                Bounds bounds = Bounds.of(region);
+                all.add(bounds);
+                int minCellX = bounds.minX() >> 4, maxCellX = bounds.maxX() >> 4;
+                int minCellZ = bounds.minZ() >> 4, maxCellZ = bounds.maxZ() >> 4;
+                if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > MAX_CELLS_PER_REGION) {
+                    oversized.add(bounds);
+                    continue;
+                }
+
+                for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                    for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                        long key = cellKey(cellX, cellZ);
+                        overlapping.computeIfAbsent(key, k -> new ArrayList<>(1)).add(bounds);
+                        if (bounds.coversColumn(cellX, cellZ, minHeight, maxHeight)) {
+                            covered.add(key);
+                        }
+                    }
+                }
+            }
+
+            ChunkCellMap<Bounds[]> cells = new ChunkCellMap<>(overlapping.size());
+            for (Map.Entry<Long, List<Bounds>> cell : overlapping.entrySet()) {
+                byte flag = covered.contains(cell.getKey()) ? ChunkCellMap.FULL : ChunkCellMap.PARTIAL;
+                cells.put(cell.getKey(), flag, cell.getValue().toArray(NO_BOUNDS));
+            }
+            directIds.sort(null);
+            return new WorldIndex(List.copyOf(resolved), List.copyOf(directIds), cells, oversized.toArray(NO_BOUNDS),
+                    all.toArray(NO_BOUNDS), minHeight, maxHeight);
+        }
+
+        boolean contains(int x, int y, int z) {
+            int slot = cells.slot(cellKey(x >> 4, z >> 4));
+            if (slot >= 0) {
+                if (cells.flagAt(slot) == ChunkCellMap.FULL && y >= minHeight && y < maxHeight) {
+                    return true;
+                }
+                for (Bounds bounds : cells.valueAt(slot)) {
+                    if (bounds.contains(x, y, z)) {
+                        return true;
+                    }
+                }
+            }
+            for (Bounds bounds : oversized) {
+                if (bounds.contains(x, y, z)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return cells.isEmpty() && oversized.length == 0;
+        }
+
+        boolean intersects(double x0, double y0, double z0, double x1, double y1, double z1) {
+            int minCellX = (int) Math.floor(Math.min(x0, x1)) >> 4, maxCellX = (int) Math.floor(Math.max(x0, x1)) >> 4;
+            int minCellZ = (int) Math.floor(Math.min(z0, z1)) >> 4, maxCellZ = (int) Math.floor(Math.max(z0, z1)) >> 4;
+
+            if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > MAX_SWEPT_CELLS) {
+                for (Bounds bounds : all) {
+                    if (bounds.crossedBy(x0, y0, z0, x1, y1, z1)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    int slot = cells.slot(cellKey(cellX, cellZ));
+                    if (slot < 0) {
+                        continue;
+                    }
+                    for (Bounds bounds : cells.valueAt(slot)) {
+                        if (bounds.crossedBy(x0, y0, z0, x1, y1, z1)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            for (Bounds bounds : oversized) {
+                if (bounds.crossedBy(x0, y0, z0, x1, y1, z1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Cell cellAt(UUID worldId, long generation, int x, int y, int z) {
+            int slot = cells.slot(cellKey(x >> 4, z >> 4));
+            Bounds[] local = slot >= 0 ? cells.valueAt(slot) : NO_BOUNDS;
+
+            if (contains(x, y, z)) {
+                // Anywhere in a blocked cuboid is blocked, other shapes can only vouch for the block itself
+                for (Bounds bounds : local) {
+                    if (bounds.cuboid() && bounds.contains(x, y, z)) {
+                        return new Cell(worldId, generation, true,
+                                bounds.minX(), bounds.minY(), bounds.minZ(), bounds.maxX(), bounds.maxY(), bounds.maxZ());
+                    }
+                }
+                for (Bounds bounds : oversized) {
+                    if (bounds.cuboid() && bounds.contains(x, y, z)) {
+                        return new Cell(worldId, generation, true,
+                                bounds.minX(), bounds.minY(), bounds.minZ(), bounds.maxX(), bounds.maxY(), bounds.maxZ());
+                    }
+                }
+                return new Cell(worldId, generation, true, x, y, z, x, y, z);
+            }
+
+            // Start from the whole chunk column and cut away every box near the point
+            int[] box = {x & ~15, Integer.MIN_VALUE, z & ~15, (x & ~15) + 15, Integer.MAX_VALUE, (z & ~15) + 15};
+            for (Bounds bounds : local) {
+                if (!exclude(box, bounds, x, y, z)) {
+                    return new Cell(worldId, generation, false, x, y, z, x, y, z);
+                }
+            }
+            for (Bounds bounds : oversized) {
+                if (!exclude(box, bounds, x, y, z)) {
+                    return new Cell(worldId, generation, false, x, y, z, x, y, z);
+                }
+            }
+            return new Cell(worldId, generation, false, box[0], box[1], box[2], box[3], box[4], box[5]);
+        }
+
+        /**
+         * Shrinks the box along whichever axis keeps the most of it so that it no longer overlaps the bounds
+         * @return false if the point itself is inside the bounds, so no box around it can be vouched for
+         */
+        private boolean exclude(int[] box, Bounds bounds, int x, int y, int z) {
+            if (bounds.maxX() < box[0] || bounds.minX() > box[3] || bounds.maxY() < box[1] || bounds.minY() > box[4]
+                    || bounds.maxZ() < box[2] || bounds.minZ() > box[5]) {
+                return true;
+            }
+
+            int bestAxis = -1;
+            int bestValue = 0;
+            double bestVolume = -1;
+            int[] point = {x, y, z};
+            int[] lower = {bounds.minX(), bounds.minY(), bounds.minZ()};
+            int[] upper = {bounds.maxX(), bounds.maxY(), bounds.maxZ()};
+            for (int axis = 0; axis < 3; axis++) {
+                if (upper[axis] < point[axis]) {
+                    double volume = volume(box, axis, upper[axis] + 1);
+                    if (volume > bestVolume) {
+                        bestAxis = axis;
+                        bestValue = upper[axis] + 1;
+                        bestVolume = volume;
+                    }
+                } else if (lower[axis] > point[axis]) {
+                    double volume = volume(box, axis + 3, lower[axis] - 1);
+                    if (volume > bestVolume) {
+                        bestAxis = axis + 3;
+                        bestValue = lower[axis] - 1;
+                        bestVolume = volume;
+                    }
+                }
+            }
+
+            if (bestAxis < 0) {
+                return false;
+            }
+            box[bestAxis] = bestValue;
+            return true;
+        }
+
+        /**
+         * @return the volume the box would have with one face moved, counting height only within the build limits
+         */
+        private double volume(int[] box, int face, int value) {
+            int[] cut = box.clone();
+            cut[face] = value;
+            double height = Math.min(cut[4], maxHeight - 1) - Math.max(cut[1], minHeight) + 1;
+            return (cut[3] - cut[0] + 1.0) * Math.max(height, 1.0) * (cut[5] - cut[2] + 1.0);
+        }
+
+        private static long cellKey(int cellX, int cellZ) {
+            return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * A box of blocks that are either all blocked or all free, as of one build of the index
+     */
+    public record Cell(UUID worldId, long generation, boolean blocked,
+                       int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+        public boolean contains(Location location) {
+            World world = location.getWorld();
+            int x = location.getBlockX(), y = location.getBlockY(), z = location.getBlockZ();
+            return world != null && world.getUID().equals(worldId)
+                    && x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+    }
+
+    /**
+     * Bounding box of a blocked region. Cuboids are exactly their box, other shapes are confirmed by WorldGuard.
+     */
+    private record Bounds(ProtectedRegion region, boolean cuboid,
+                          int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+        static Bounds of(ProtectedRegion region) {
+            BlockVector3 min = region.getMinimumPoint();
+            BlockVector3 max = region.getMaximumPoint();
+            return new Bounds(region, region instanceof ProtectedCuboidRegion,
+                    min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+        }
+
+        /**
+         * @return true if this is a cuboid spanning the whole chunk column over the world's build height
+         */
+        boolean coversColumn(int cellX, int cellZ, int minHeight, int maxHeight) {
+            int blockX = cellX << 4, blockZ = cellZ << 4;
+            return cuboid && minX <= blockX && maxX >= blockX + 15 && minZ <= blockZ && maxZ >= blockZ + 15
+                    && minY <= minHeight && maxY >= maxHeight - 1;
+        }
+
+        /**
+         * Slab test of the segment against the box, cuboids are done there. Other shapes walk the clipped part of
+         * the segment in half-block steps and ask WorldGuard.
+         */
+        boolean crossedBy(double x0, double y0, double z0, double x1, double y1, double z1) {
+            double[] range = {0.0, 1.0};
+            if (!clip(x0, x1 - x0, minX, maxX + 1, range)
+                    || !clip(y0, y1 - y0, minY, maxY + 1, range)
+                    || !clip(z0, z1 - z0, minZ, maxZ + 1, range)) {
+                return false;
+            }
+            if (cuboid) {
+                return true;
+            }
+
+            double length = Math.sqrt((x1 - x0) * (x1 - x0) + (y1 - y0) * (y1 - y0) + (z1 - z0) * (z1 - z0));
+            int steps = Math.max(1, (int) Math.ceil(length * (range[1] - range[0]) * 2));
+            for (int step = 0; step <= steps; step++) {
+                double t = range[0] + (range[1] - range[0]) * step / steps;
+                if (region.contains((int) Math.floor(x0 + (x1 - x0) * t), (int) Math.floor(y0 + (y1 - y0) * t),
+                        (int) Math.floor(z0 + (z1 - z0) * t))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Narrows the segment's parameter range to where it lies between min (inclusive) and max (exclusive) on one axis
+         * @return false if no part of the segment is left
+         */
+        private static boolean clip(double origin, double delta, double min, double max, double[] range) {
+            if (Math.abs(delta) < 1.0E-9) {
+                return origin >= min && origin < max;
+            }
+            double t1 = (min - origin) / delta;
+            double t2 = (max - origin) / delta;
+            range[0] = Math.max(range[0], Math.min(t1, t2));
+            range[1] = Math.min(range[1], Math.max(t1, t2));
+            return range[0] <= range[1];
+        }
+
+        boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ
+                    && (cuboid || region.contains(x, y, z));
+        }
+    }
+}
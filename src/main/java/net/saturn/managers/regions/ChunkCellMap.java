@@ -0,0 +1,78 @@
+package net.saturn.managers.regions;
+
+/**
+ * Open-addressing map from a chunk key to a flag byte and a value, filled once and then only read.
+ * Keys sit in a long[] next to a byte[] of flags, so a lookup is a short linear probe with no boxing.
+ * A slot whose flag is {@link #NONE} is empty, so every stored chunk must carry another flag.
+ */
+final class ChunkCellMap<T> {
+
+    static final byte NONE = 0; // No blocked region touches the chunk
+    static final byte PARTIAL = 1; // Some blocked region overlaps the chunk, test its boxes
+    static final byte FULL = 2; // The whole column, at build height, is inside a blocked region
+
+    private final long[] keys;
+    private final byte[] flags;
+    private final Object[] values;
+    private final int mask;
+    private int size;
+
+    ChunkCellMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.flags = new byte[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Only called while building, before the map is published
+     */
+    void put(long key, byte flag, T value) {
+        int index = mix(key) & mask;
+        while (flags[index] != NONE && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (flags[index] == NONE) {
+            size++;
+        }
+        keys[index] = key;
+        flags[index] = flag;
+        values[index] = value;
+    }
+
+    /**
+     * @return the slot holding the chunk, or -1 if no blocked region touches it
+     */
+    int slot(long key) {
+        int index = mix(key) & mask;
+        while (flags[index] != NONE) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    byte flagAt(int slot) {
+        return flags[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    T valueAt(int slot) {
+        return (T) values[slot];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,87 @@
+package net.saturn.managers.regions;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
+import com.sk89q.worldguard.protection.flags.Flag;
+import com.sk89q.worldguard.protection.flags.StateFlag;
+import com.sk89q.worldguard.protection.flags.registry.FlagConflictException;
+import com.sk89q.worldguard.protection.flags.registry.FlagRegistry;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionType;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.logging.Logger;
+
+/**
+ * The {@code combat-entry} region flag. Denying it keeps tagged players out of the region, so blocked regions are
+ * stored by WorldGuard with the region itself and can be set with {@code /rg flag <region> combat-entry deny}.
+ */
+public final class CombatEntryFlag {
+
+    public static final String NAME = "combat-entry";
+
+    private static volatile StateFlag flag;
+
+    private CombatEntryFlag() {
+    }
+
+    /**
+     * Registers the flag with WorldGuard. Must be called while plugins load, WorldGuard locks its registry once
+     * it is enabled. A flag another plugin already registered under the same name is reused if it is a state flag.
+     * @return true if the flag is available
+     */
+    public static boolean register(Logger logger) {
+        FlagRegistry registry = WorldGuard.getInstance().getFlagRegistry();
+        try {
+            StateFlag created = new StateFlag(NAME, true);
+            registry.register(created);
+            flag = created;
+        } catch (FlagConflictException | IllegalStateException e) {
+            Flag<?> existing = registry.get(NAME);
+            if (existing instanceof StateFlag state) {
+                flag = state;
+            } else {
+                logger.warning("Could not register the " + NAME + " flag: " + e.getMessage());
+            }
+        }
+        return flag != null;
+    }
+
+    /**
+     * @return the registered flag, or null if registration failed
+     */
+    public static StateFlag get() {
+        return flag;
+    }
+
+    /**
+     * Asks WorldGuard, with parents, priorities and member groups applied. The index only knows which regions deny
+     * the flag, so callers use it to rule locations out and this to confirm the few it flags.
+     * @return true if the player may not enter the location while tagged
+     */
+    public static boolean deniesEntry(Player player, Location location) {
+        StateFlag current = flag;
+        return current != null && WorldGuard.getInstance().getPlatform().getRegionContainer().createQuery()
+                .queryState(BukkitAdapter.adapt(location), WorldGuardPlugin.inst().wrapPlayer(player), current) == StateFlag.State.DENY;
+    }
+
+    /**
+     * @return true if the region denies the flag, directly or through its parents. The global region has no
+     * bounds and is never treated as blocked.
+     */
+    public static boolean isDenied(ProtectedRegion region) {
+        StateFlag current = flag;
+        if (current == null || region.getType() == RegionType.GLOBAL) {
+            return false;
+        }
+        for (ProtectedRegion node = region; node != null; node = node.getParent()) {
+            StateFlag.State state = node.getFlag(current);
+            if (state != null) {
+                return state == StateFlag.State.DENY;
+            }
+        }
+        return false;
+    }
+}
@@ -1,18 +1,16 @@
 package net.saturn.managers.regions;
 
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.math.BlockVector3;
-import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.saturn.BetterCombatLogging;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RegionBorderVisualizer {
 
@@ -20,39 +18,37 @@ public class RegionBorderVisualizer {
     private final Map<UUID, Set<Location>> playerVisibleBlocks;
     private final Map<UUID, Long> lastUpdate;
     private final Map<UUID, Map<Location, Material>> originalBlockTypes; // Store original block types
-    private BukkitRunnable updateTask;
+    private ScheduledTask updateTask;
     private static final long UPDATE_INTERVAL_MS = 500; // Update every 500ms per player
 
     public RegionBorderVisualizer(BetterCombatLogging plugin) {
         this.plugin = plugin;
-        this.playerVisibleBlocks = new HashMap<>();
-        this.lastUpdate = new HashMap<>();
-        this.originalBlockTypes = new HashMap<>();
+        this.playerVisibleBlocks = new ConcurrentHashMap<>();
+        this.lastUpdate = new ConcurrentHashMap<>();
+        this.originalBlockTypes = new ConcurrentHashMap<>();
     }
 
     public void start() {
-        updateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                long currentTime = System.currentTimeMillis();
-
-                for (Player player : plugin.getServer().getOnlinePlayers()) {
-                    UUID uuid = player.getUniqueId();
-                    long lastUpdateTime = lastUpdate.getOrDefault(uuid, 0L);
-
-                    if (currentTime - lastUpdateTime >= UPDATE_INTERVAL_MS) {
-                        updatePlayerView(player);
-                        lastUpdate.put(uuid, currentTime);
-                    }
+        updateTask = plugin.getTaskScheduler().runGlobalTimer(() -> {
+            long currentTime = System.currentTimeMillis();
+
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                UUID uuid = player.getUniqueId();
+                long lastUpdateTime = lastUpdate.getOrDefault(uuid, 0L);
+
+                if (currentTime - lastUpdateTime >= UPDATE_INTERVAL_MS) {
+                    lastUpdate.put(uuid, currentTime);
+                    // Views read the player's surroundings, so render on the thread that owns the player
+                    plugin.getTaskScheduler().executeAtEntity(player, () -> updatePlayerView(player));
                 }
             }
-        };
-        updateTask.runTaskTimer(plugin, 0L, 5L); // Run every 5 ticks (0.25s)
+        }, 1L, 5L); // Run every 5 ticks (0.25s)
     }
 
     public void stop() {
         if (updateTask != null) {
             updateTask.cancel();
+            updateTask = null;
         }
 
         for (Player player : plugin.getServer().getOnlinePlayers()) {
@@ -69,19 +65,12 @@ public class RegionBorderVisualizer {
         Set<Location> newBlocks = new HashSet<>();
 
         if (plugin.getCombatManager().isInCombat(player)) {
-            List<String> blockedRegions = plugin.getRegionManager().getBlockedRegions();
-            if (!blockedRegions.isEmpty()) {
-                RegionManager regionManager = WorldGuard.getInstance().getPlatform()
-                        .getRegionContainer()
-                        .get(BukkitAdapter.adapt(player.getWorld()));
-
-                if (regionManager != null) {
-                    int distance = plugin.getConfig().getInt("region-visualizer.distance", 15);
-                    for (String regionName : blockedRegions) {
-                        ProtectedRegion region = regionManager.getRegion(regionName);
-                        if (region != null && isPlayerNearRegion(player.getLocation(), region, distance)) {
-                            newBlocks.addAll(getRegionBorderBlocks(region, player.getLocation()));
-                        }
+            BlockedRegionIndex index = plugin.getBlockedRegionIndex();
+            if (index != null) {
+                int distance = plugin.getSettings().visualizerDistance();
+                for (ProtectedRegion region : index.getBlockedRegions(player.getWorld())) {
+                    if (isPlayerNearRegion(player.getLocation(), region, distance)) {
+                        newBlocks.addAll(getRegionBorderBlocks(region, player.getLocation()));
                     }
                 }
             }
@@ -203,6 +192,10 @@ public class RegionBorderVisualizer {
     }
 
     private Set<Location> getRegionBorderBlocks(ProtectedRegion region, Location playerLoc) {
+        return getRegionBorderBlocks(region, playerLoc, plugin.getSettings().visualizerVerticalRange());
+    }
+
+    static Set<Location> getRegionBorderBlocks(ProtectedRegion region, Location playerLoc, int verticalRange) {
         Set<Location> blocks = new HashSet<>();
         BlockVector3 min = region.getMinimumPoint();
         BlockVector3 max = region.getMaximumPoint();
@@ -210,7 +203,6 @@ public class RegionBorderVisualizer {
         int minX = min.getX(), minY = min.getY(), minZ = min.getZ();
         int maxX = max.getX(), maxY = max.getY(), maxZ = max.getZ();
         int playerY = playerLoc.getBlockY();
-        int verticalRange = plugin.getConfig().getInt("region-visualizer.vertical-range", 5);
         int visualMinY = Math.max(minY + 1, playerY - verticalRange);
         int visualMaxY = Math.min(maxY, playerY + verticalRange);
 
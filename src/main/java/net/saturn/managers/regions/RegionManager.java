@@ -1,96 +1,269 @@
 package net.saturn.managers.regions;
 
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.flags.StateFlag;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import net.saturn.BetterCombatLogging;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Blocks regions by denying {@link CombatEntryFlag} on them, and moves the ids older versions kept in
+ * blocked-regions.yml over to that flag.
+ */
 public class RegionManager {
 
     private final BetterCombatLogging plugin;
-    private final Set<String> blockedRegions;
+    private final Map<String, Set<String>> pending = new HashMap<>(); // World -> legacy ids not moved to the flag yet
+    private final Set<String> pendingUnscoped = new HashSet<>(); // Legacy ids from before regions were scoped
     private File dataFile;
     private FileConfiguration data;
 
     public RegionManager(BetterCombatLogging plugin) {
         this.plugin = plugin;
-        this.blockedRegions = new HashSet<>();
         this.dataFile = new File(plugin.getDataFolder(), "blocked-regions.yml");
     }
 
-    public void load() {
-        if (!dataFile.exists()) {
-            try {
-                dataFile.getParentFile().mkdirs();
-                dataFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create blocked-regions.yml: " + e.getMessage());
-            }
-        }
-
+    public synchronized void load() {
+        pending.clear();
+        pendingUnscoped.clear();
         data = YamlConfiguration.loadConfiguration(dataFile);
 
-        // Load blocked regions
-        if (data.contains("blocked-regions")) {
-            blockedRegions.addAll(data.getStringList("blocked-regions"));
-            plugin.getLogger().info("Loaded " + blockedRegions.size() + " blocked regions");
+        // Load legacy blocked regions
+        pendingUnscoped.addAll(data.getStringList("unscoped-blocked-regions"));
+        ConfigurationSection section = data.getConfigurationSection("blocked-regions");
+        if (section != null) {
+            for (String world : section.getKeys(false)) {
+                pending.put(world, new HashSet<>(section.getStringList(world)));
+            }
+        } else if (data.isList("blocked-regions")) {
+            pendingUnscoped.addAll(data.getStringList("blocked-regions"));
         } else {
             // Load from config.yml for backwards compatibility
-            List<String> configRegions = plugin.getConfig().getStringList("blocked-regions");
-            if (!configRegions.isEmpty()) {
-                blockedRegions.addAll(configRegions);
-                plugin.getLogger().info("Migrated " + blockedRegions.size() + " blocked regions from config.yml");
-                save(); // Save to new file
-            }
+            pendingUnscoped.addAll(plugin.getConfig().getStringList("blocked-regions"));
+        }
+
+        int count = pendingCount();
+        if (count > 0) {
+            plugin.getLogger().info("Found " + count + " blocked regions to move to the " + CombatEntryFlag.NAME + " flag");
         }
     }
 
-    public void save() {
+    public synchronized void save() {
+        if (data == null) {
+            return;
+        }
+        if (pending.isEmpty() && pendingUnscoped.isEmpty()) {
+            if (dataFile.exists() && dataFile.delete()) {
+                plugin.getLogger().info("All blocked regions moved to the " + CombatEntryFlag.NAME + " flag");
+            }
+            return;
+        }
         try {
-            data.set("blocked-regions", new ArrayList<>(blockedRegions));
+            data.set("blocked-regions", null);
+            for (Map.Entry<String, Set<String>> world : pending.entrySet()) {
+                data.set("blocked-regions." + world.getKey(), new ArrayList<>(world.getValue()));
+            }
+            data.set("unscoped-blocked-regions", pendingUnscoped.isEmpty() ? null : new ArrayList<>(pendingUnscoped));
             data.save(dataFile);
-            plugin.getLogger().info("Saved blocked regions");
         } catch (IOException e) {
             plugin.getLogger().severe("Could not save blocked regions: " + e.getMessage());
         }
     }
 
-    public boolean addRegion(String regionName) {
-        boolean added = blockedRegions.add(regionName);
-        if (added) {
-            save();
+    /**
+     * Denies the flag on the region, WorldGuard saves it with the region
+     * @return false if the world defines no such region or it is already blocked
+     */
+    public boolean addRegion(World world, String regionName) {
+        ProtectedRegion region = getRegion(world, regionName);
+        StateFlag flag = CombatEntryFlag.get();
+        if (region == null || flag == null || region.getFlag(flag) == StateFlag.State.DENY) {
+            return false;
         }
-        return added;
+        region.setFlag(flag, StateFlag.State.DENY);
+        plugin.refreshBlockedRegions();
+        return true;
     }
 
-    public boolean removeRegion(String regionName) {
-        boolean removed = blockedRegions.remove(regionName);
+    /**
+     * Unsets the flag on the region if it denies it, and drops any legacy entry for it that has not been moved yet
+     * @return false if nothing was blocking the region
+     */
+    public boolean removeRegion(World world, String regionName) {
+        boolean removed;
+        synchronized (this) {
+            Set<String> regions = pending.get(world.getName());
+            removed = regions != null && regions.remove(regionName);
+            removed |= pendingUnscoped.remove(regionName);
+            if (regions != null && regions.isEmpty()) {
+                pending.remove(world.getName());
+            }
+            if (removed) {
+                save();
+            }
+        }
+
+        ProtectedRegion region = getRegion(world, regionName);
+        StateFlag flag = CombatEntryFlag.get();
+        if (region != null && flag != null && region.getFlag(flag) == StateFlag.State.DENY) {
+            region.setFlag(flag, null);
+            removed = true;
+        }
+
         if (removed) {
-            save();
+            plugin.refreshBlockedRegions();
         }
         return removed;
     }
 
-    public boolean isRegionBlocked(String regionName) {
-        return blockedRegions.contains(regionName);
+    /**
+     * @return true if the region itself denies the flag. Regions only inheriting it from a parent are blocked too,
+     * but are unblocked through the parent.
+     */
+    public boolean isRegionBlocked(World world, String regionName) {
+        ProtectedRegion region = getRegion(world, regionName);
+        StateFlag flag = CombatEntryFlag.get();
+        return region != null && flag != null && region.getFlag(flag) == StateFlag.State.DENY;
     }
 
-    public List<String> getBlockedRegions() {
-        return new ArrayList<>(blockedRegions);
+    /**
+     * @return the sorted ids of the regions in the world that deny the flag themselves, read from the index
+     */
+    public List<String> getBlockedRegions(World world) {
+        BlockedRegionIndex index = plugin.getBlockedRegionIndex();
+        return index != null ? index.getBlockedRegionIds(world) : List.of();
     }
 
     public int getBlockedRegionCount() {
-        return blockedRegions.size();
+        BlockedRegionIndex index = plugin.getBlockedRegionIndex();
+        return index != null ? index.getBlockedRegionCount() : 0;
     }
 
+    /**
+     * @return the legacy ids that no loaded world defines yet, by world name, with unscoped ones under null
+     */
+    public synchronized Map<String, Set<String>> getPendingRegions() {
+        Map<String, Set<String>> copy = new HashMap<>();
+        pending.forEach((world, regions) -> copy.put(world, Set.copyOf(regions)));
+        if (!pendingUnscoped.isEmpty()) {
+            copy.put(null, Set.copyOf(pendingUnscoped));
+        }
+        return copy;
+    }
+
+    /**
+     * Unsets the flag on every region denying it directly and forgets every legacy entry. Regions set to allow
+     * it, such as overrides inside a blocked region, keep their value.
+     */
     public void clearRegions() {
-        blockedRegions.clear();
-        save();
+        synchronized (this) {
+            pending.clear();
+            pendingUnscoped.clear();
+            save();
+        }
+
+        StateFlag flag = CombatEntryFlag.get();
+        if (flag != null) {
+            for (World world : Bukkit.getWorlds()) {
+                com.sk89q.worldguard.protection.managers.RegionManager manager = getManager(world);
+                if (manager != null) {
+                    for (ProtectedRegion region : manager.getRegions().values()) {
+                        if (region.getFlag(flag) == StateFlag.State.DENY) {
+                            region.setFlag(flag, null);
+                        }
+                    }
+                }
+            }
+        }
+        plugin.refreshBlockedRegions();
+    }
+
+    /**
+     * Denies the flag on every region a legacy entry names, in the loaded worlds defining it. Entries for worlds
+     * or regions that do not exist yet stay in the file. Does not refresh the index, it is called while the index
+     * rebuilds.
+     * @return true if anything was moved
+     */
+    public synchronized boolean migratePending() {
+        StateFlag flag = CombatEntryFlag.get();
+        if (flag == null || (pending.isEmpty() && pendingUnscoped.isEmpty())) {
+            return false;
+        }
+
+        boolean moved = false;
+        for (World world : Bukkit.getWorlds()) {
+            com.sk89q.worldguard.protection.managers.RegionManager manager = getManager(world);
+            if (manager == null) {
+                continue;
+            }
+
+            Set<String> regions = pending.getOrDefault(world.getName(), Set.of());
+            for (String regionName : List.copyOf(regions)) {
+                ProtectedRegion region = manager.getRegion(regionName);
+                if (region != null) {
+                    region.setFlag(flag, StateFlag.State.DENY);
+                    regions.remove(regionName);
+                    moved = true;
+                    plugin.getLogger().info("Moved blocked region " + regionName + " in " + world.getName() + " to the " + CombatEntryFlag.NAME + " flag");
+                }
+            }
+            if (regions.isEmpty()) {
+                pending.remove(world.getName());
+            }
+        }
+
+        // Unscoped ids apply to every world defining them, so they are only dropped once some world does
+        for (String regionName : List.copyOf(pendingUnscoped)) {
+            List<String> worlds = new ArrayList<>();
+            for (World world : Bukkit.getWorlds()) {
+                com.sk89q.worldguard.protection.managers.RegionManager manager = getManager(world);
+                ProtectedRegion region = manager != null ? manager.getRegion(regionName) : null;
+                if (region != null) {
+                    region.setFlag(flag, StateFlag.State.DENY);
+                    worlds.add(world.getName());
+                }
+            }
+            if (!worlds.isEmpty()) {
+                pendingUnscoped.remove(regionName);
+                moved = true;
+                plugin.getLogger().info("Moved blocked region " + regionName + " in " + String.join(", ", worlds) + " to the " + CombatEntryFlag.NAME + " flag");
+            }
+        }
+
+        if (moved) {
+            save();
+        }
+        return moved;
+    }
+
+    private int pendingCount() {
+        int count = pendingUnscoped.size();
+        for (Set<String> regions : pending.values()) {
+            count += regions.size();
+        }
+        return count;
+    }
+
+    private static ProtectedRegion getRegion(World world, String regionName) {
+        com.sk89q.worldguard.protection.managers.RegionManager manager = getManager(world);
+        return manager != null ? manager.getRegion(regionName) : null;
+    }
+
+    private static com.sk89q.worldguard.protection.managers.RegionManager getManager(World world) {
+        return WorldGuard.getInstance().getPlatform().getRegionContainer().get(BukkitAdapter.adapt(world));
     }
-}
\ No newline at end of file
+}
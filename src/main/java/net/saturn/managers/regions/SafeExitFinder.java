@@ -0,0 +1,190 @@
+package net.saturn.managers.regions;
+
+import net.saturn.BetterCombatLogging;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Finds somewhere to put a tagged player who ended up inside a blocked region.
+ */
+public class SafeExitFinder {
+
+    private static final int SEARCH_RADIUS = 10; // Rings around the start column
+    private static final int SEARCH_HEIGHT = 5; // Levels above and below the start
+    private static final int MAX_CACHED_CHUNKS = 1024; // Per world, start chunks with cached exits
+
+    private final BetterCombatLogging plugin;
+    private final BlockedRegionIndex blockedRegions;
+    private final Map<UUID, Map<Long, Map<Long, Exit>>> exits; // World -> start chunk -> start block -> exit
+    private final Set<UUID> searching;
+
+    public SafeExitFinder(BetterCombatLogging plugin, BlockedRegionIndex blockedRegions) {
+        this.plugin = plugin;
+        this.blockedRegions = blockedRegions;
+        this.exits = new ConcurrentHashMap<>();
+        this.searching = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Looks for a free spot near the start, standing on solid ground with two blocks of air above.
+     * Must be called on the player's thread; the callback runs there too, with the world spawn if nothing was found.
+     * Does nothing if a search for the player is already running.
+     */
+    public void findExit(Player player, Location start, Consumer<Location> onFound) {
+        World world = start.getWorld();
+        int startX = start.getBlockX(), startY = start.getBlockY(), startZ = start.getBlockZ();
+
+        Exit cached = cached(world, startX, startY, startZ);
+        if (cached != null) {
+            onFound.accept(cached.toLocation(world, start));
+            return;
+        }
+
+        if (!searching.add(player.getUniqueId())) {
+            return;
+        }
+
+        Map<Long, ChunkSnapshot> snapshots = snapshotAround(world, startX, startZ);
+        long generation = blockedRegions.getGeneration();
+
+        plugin.getTaskScheduler().runAsync(() -> {
+            Exit exit = search(world, snapshots, startX, startY, startZ, generation);
+            if (exit != null) {
+                remember(world, startX, startY, startZ, exit);
+            }
+
+            plugin.getTaskScheduler().runAtEntity(player, () -> {
+                searching.remove(player.getUniqueId());
+                if (player.isOnline()) {
+                    onFound.accept(exit != null ? exit.toLocation(world, start) : world.getSpawnLocation());
+                }
+            });
+        });
+    }
+
+    /**
+     * Drops cached exits whose search area contains the block
+     */
+    public void invalidate(Block block) {
+        Map<Long, Map<Long, Exit>> worldExits = exits.get(block.getWorld().getUID());
+        if (worldExits == null || worldExits.isEmpty()) {
+            return;
+        }
+
+        // The search never reaches further than one chunk from its start
+        int chunkX = block.getX() >> 4, chunkZ = block.getZ() >> 4;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                worldExits.remove(chunkKey(chunkX + dx, chunkZ + dz));
+            }
+        }
+    }
+
+    public void forget(Player player) {
+        searching.remove(player.getUniqueId());
+    }
+
+    /* ============================================================
+       SEARCH
+       ============================================================ */
+    private Map<Long, ChunkSnapshot> snapshotAround(World world, int startX, int startZ) {
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (int chunkX = (startX - SEARCH_RADIUS) >> 4; chunkX <= (startX + SEARCH_RADIUS) >> 4; chunkX++) {
+            for (int chunkZ = (startZ - SEARCH_RADIUS) >> 4; chunkZ <= (startZ + SEARCH_RADIUS) >> 4; chunkZ++) {
+                // Chunks that are unloaded or belong to another region thread are simply not searched
+                if (world.isChunkLoaded(chunkX, chunkZ)
+                        && plugin.getTaskScheduler().isOwnedByCurrentThread(world, chunkX, chunkZ)) {
+                    snapshots.put(chunkKey(chunkX, chunkZ), world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private Exit search(World world, Map<Long, ChunkSnapshot> snapshots, int startX, int startY, int startZ, long generation) {
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+
+        for (int radius = 1; radius <= SEARCH_RADIUS; radius++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    // Only check the outer edge of the current radius
+                    if (Math.abs(dx) != radius && Math.abs(dz) != radius) {
+                        continue;
+                    }
+
+                    int x = startX + dx, z = startZ + dz;
+                    ChunkSnapshot snapshot = snapshots.get(chunkKey(x >> 4, z >> 4));
+                    if (snapshot == null) {
+                        continue;
+                    }
+
+                    for (int dy = -SEARCH_HEIGHT; dy <= SEARCH_HEIGHT; dy++) {
+                        int ground = startY + dy;
+                        if (ground < minY || ground + 2 >= maxY) {
+                            continue;
+                        }
+                        if (isSafe(snapshot, x & 15, ground, z & 15) && !blockedRegions.isBlocked(world, x, ground + 1, z)) {
+                            return new Exit(x, ground + 1, z, generation);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSafe(ChunkSnapshot snapshot, int x, int ground, int z) {
+        Material floor = snapshot.getBlockType(x, ground, z);
+        return floor.isSolid()
+                && snapshot.getBlockType(x, ground + 1, z).isAir()
+                && snapshot.getBlockType(x, ground + 2, z).isAir();
+    }
+
+    /* ============================================================
+       CACHE
+       ============================================================ */
+    private Exit cached(World world, int x, int y, int z) {
+        Map<Long, Map<Long, Exit>> worldExits = exits.get(world.getUID());
+        Map<Long, Exit> chunkExits = worldExits != null ? worldExits.get(chunkKey(x >> 4, z >> 4)) : null;
+        Exit exit = chunkExits != null ? chunkExits.get(blockKey(x, y, z)) : null;
+        return exit != null && exit.generation() == blockedRegions.getGeneration() ? exit : null;
+    }
+
+    private void remember(World world, int x, int y, int z, Exit exit) {
+        Map<Long, Map<Long, Exit>> worldExits = exits.computeIfAbsent(world.getUID(), id -> new ConcurrentHashMap<>());
+        if (worldExits.size() >= MAX_CACHED_CHUNKS) {
+            worldExits.clear();
+        }
+        worldExits.computeIfAbsent(chunkKey(x >> 4, z >> 4), key -> new ConcurrentHashMap<>()).put(blockKey(x, y, z), exit);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * The block a player can stand in, as of one build of the blocked region index
+     */
+    private record Exit(int x, int y, int z, long generation) {
+
+        Location toLocation(World world, Location start) {
+            return new Location(world, x + 0.5, y, z + 0.5, start.getYaw(), start.getPitch());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package net.saturn.tasks;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Scheduling layer that works on both Paper and Folia.
+ */
+public class PluginScheduler {
+
+    private final Plugin plugin;
+    private final boolean folia;
+
+    public PluginScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        this.folia = detectFolia();
+    }
+
+    public boolean isFolia() {
+        return folia;
+    }
+
+    /* ============================================================
+       GLOBAL
+       ============================================================ */
+    public ScheduledTask runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                Math.max(1L, delayTicks), periodTicks);
+    }
+
+    public ScheduledTask runGlobalLater(Runnable task, long delayTicks) {
+        return Bukkit.getGlobalRegionScheduler().runDelayed(plugin, scheduled -> task.run(), Math.max(1L, delayTicks));
+    }
+
+    public void runGlobal(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    /* ============================================================
+       ENTITY
+       ============================================================ */
+
+    /**
+     * Runs the task on the entity's owning thread during the next tick; dropped if the entity is removed first
+     */
+    public void runAtEntity(Entity entity, Runnable task) {
+        entity.getScheduler().run(plugin, scheduled -> task.run(), null);
+    }
+
+    public void runAtEntityLater(Entity entity, Runnable task, long delayTicks) {
+        entity.getScheduler().runDelayed(plugin, scheduled -> task.run(), null, Math.max(1L, delayTicks));
+    }
+
+    /**
+     * Runs the task immediately if the current thread owns the entity, otherwise hands it to the entity's scheduler
+     */
+    public void executeAtEntity(Entity entity, Runnable task) {
+        if (isOwnedByCurrentThread(entity)) {
+            task.run();
+        } else {
+            runAtEntity(entity, task);
+        }
+    }
+
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        return folia ? Bukkit.isOwnedByCurrentRegion(entity) : Bukkit.isPrimaryThread();
+    }
+
+    /* ============================================================
+       REGION
+       ============================================================ */
+
+    /**
+     * Runs the task on the thread owning the chunk, immediately if that is the current thread
+     */
+    public void executeAtChunk(World world, int chunkX, int chunkZ, Runnable task) {
+        if (isOwnedByCurrentThread(world, chunkX, chunkZ)) {
+            task.run();
+        } else {
+            Bukkit.getRegionScheduler().execute(plugin, world, chunkX, chunkZ, task);
+        }
+    }
+
+    public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+        return folia ? Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ) : Bukkit.isPrimaryThread();
+    }
+
+    /* ============================================================
+       ASYNC
+       ============================================================ */
+    public void runAsync(Runnable task) {
+        Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+    }
+
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -1,36 +1,53 @@
 package net.saturn.tasks.cleanup;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
+import net.saturn.config.PluginSettings;
+import net.saturn.tasks.PluginScheduler;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Item;
-import org.bukkit.scheduler.BukkitRunnable;
 
-public class ItemClearTask extends BukkitRunnable {
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+public class ItemClearTask implements Runnable {
 
     private final BetterCombatLogging plugin;
     private int countdown;
     private final int intervalSeconds;
     private final int warningSeconds;
+    private ScheduledTask task;
 
     public ItemClearTask(BetterCombatLogging plugin) {
         this.plugin = plugin;
-        int intervalMinutes = plugin.getConfig().getInt("item-clear.interval-minutes", 20);
+        int intervalMinutes = plugin.getSettings().itemClearIntervalMinutes();
         this.intervalSeconds = intervalMinutes * 60;
-        this.warningSeconds = plugin.getConfig().getInt("item-clear.warning-seconds", 30);
+        this.warningSeconds = plugin.getSettings().itemClearWarningSeconds();
         this.countdown = intervalSeconds;
     }
 
+    public void start() {
+        task = plugin.getTaskScheduler().runGlobalTimer(this, 1L, 20L); // Run every second
+    }
+
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
     @Override
     public void run() {
         countdown--;
 
         // Warning announcement
-        if (plugin.getConfig().getBoolean("item-clear.announce-warning", true) && countdown == warningSeconds) {
-            String warningMessage = plugin.getConfig().getString("messages.item-clear-warning",
-                            "&eItems will be cleared in {time} seconds!")
-                    .replace("{time}", String.valueOf(warningSeconds));
-            Bukkit.broadcastMessage(colorize(warningMessage));
+        if (plugin.getSettings().itemClearAnnounceWarning() && countdown == warningSeconds) {
+            plugin.getMessages().broadcast(Message.ITEM_CLEAR_WARNING, warningSeconds);
         }
 
         // Clear items
@@ -41,30 +58,72 @@ public class ItemClearTask extends BukkitRunnable {
     }
 
     private void clearAllItems() {
-        int count = 0;
+        clearItems(plugin, count -> {
+            // Broadcast clear message
+            if (plugin.getSettings().itemClearAnnounceClear()) {
+                plugin.getMessages().broadcast(Message.ITEM_CLEAR_COMPLETE, count);
+            }
+
+            plugin.getLogger().info("Item clear completed. Removed " + count + " items.");
+        });
+    }
+
+    /**
+     * Removes dropped items in every enabled world and reports the total once all of them are gone.
+     * On Folia each loaded chunk is cleared on the region thread that owns it.
+     */
+    public static void clearItems(BetterCombatLogging plugin, IntConsumer onComplete) {
+        PluginSettings settings = plugin.getSettings();
+        PluginScheduler scheduler = plugin.getTaskScheduler();
+
+        if (!scheduler.isFolia()) {
+            int count = 0;
+            for (World world : Bukkit.getWorlds()) {
+                // Skip if world is disabled for item clearing
+                if (!settings.isItemClearEnabled(world)) {
+                    continue;
+                }
+
+                for (Item item : world.getEntitiesByClass(Item.class)) {
+                    item.remove();
+                    count++;
+                }
+            }
+            onComplete.accept(count);
+            return;
+        }
+
+        AtomicInteger removed = new AtomicInteger();
+        AtomicInteger pending = new AtomicInteger(1); // Held until every chunk has been dispatched
+        Runnable finish = () -> {
+            if (pending.decrementAndGet() == 0) {
+                onComplete.accept(removed.get());
+            }
+        };
 
-        // Clear items in all worlds
         for (World world : Bukkit.getWorlds()) {
-            // Skip if world is disabled for item clearing
-            if (!plugin.getConfig().getBoolean("item-clear.worlds." + world.getName() + ".enabled", true)) {
+            if (!settings.isItemClearEnabled(world)) {
                 continue;
             }
 
-            for (Item item : world.getEntitiesByClass(Item.class)) {
-                item.remove();
-                count++;
-            }
-        }
+            for (Chunk chunk : world.getLoadedChunks()) {
+                int chunkX = chunk.getX();
+                int chunkZ = chunk.getZ();
+                pending.incrementAndGet();
 
-        // Broadcast clear message
-        if (plugin.getConfig().getBoolean("item-clear.announce-clear", true)) {
-            String clearMessage = plugin.getConfig().getString("messages.item-clear-complete",
-                            "&aCleared {count} items from the ground!")
-                    .replace("{count}", String.valueOf(count));
-            Bukkit.broadcastMessage(colorize(clearMessage));
+                scheduler.executeAtChunk(world, chunkX, chunkZ, () -> {
+                    for (Entity entity : world.getChunkAt(chunkX, chunkZ).getEntities()) {
+                        if (entity instanceof Item) {
+                            entity.remove();
+                            removed.incrementAndGet();
+                        }
+                    }
+                    finish.run();
+                });
+            }
         }
 
-        plugin.getLogger().info("Item clear completed. Removed " + count + " items.");
+        finish.run();
     }
 
     public void resetCountdown() {
@@ -74,8 +133,4 @@ public class ItemClearTask extends BukkitRunnable {
     public int getCountdown() {
         return countdown;
     }
-
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
-    }
-}
\ No newline at end of file
+}
@@ -1,19 +1,31 @@
 package net.saturn.tasks.cleanup;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.saturn.BetterCombatLogging;
-import org.bukkit.scheduler.BukkitRunnable;
 
-public class MapCleanupScheduler extends BukkitRunnable {
+public class MapCleanupScheduler implements Runnable {
 
     private final BetterCombatLogging plugin;
+    private ScheduledTask task;
 
     public MapCleanupScheduler(BetterCombatLogging plugin) {
         this.plugin = plugin;
     }
 
+    public void start(long intervalTicks) {
+        task = plugin.getTaskScheduler().runGlobalTimer(this, intervalTicks, intervalTicks);
+    }
+
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
     @Override
     public void run() {
-        if (!plugin.getConfig().getBoolean("cleanup.enabled", true)) {
+        if (!plugin.getSettings().cleanupEnabled()) {
             return;
         }
 
@@ -21,6 +33,6 @@ public class MapCleanupScheduler extends BukkitRunnable {
 
         // Run the cleanup task
         MapCleanupTask cleanupTask = new MapCleanupTask(plugin);
-        cleanupTask.runTask(plugin);
+        cleanupTask.start();
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,21 @@
 package net.saturn.tasks.cleanup;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.saturn.BetterCombatLogging;
+import net.saturn.config.Message;
+import net.saturn.config.PluginSettings;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
 import org.bukkit.block.Block;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class MapCleanupTask extends BukkitRunnable {
+public class MapCleanupTask {
 
     private final BetterCombatLogging plugin;
     private final Set<Material> blocksToRemove;
@@ -74,11 +78,14 @@ public class MapCleanupTask extends BukkitRunnable {
         blocksToRemove.add(Material.LAVA);
     }
 
-    @Override
-    public void run() {
-        // Start async cleanup for all worlds
+    /**
+     * Starts cleaning every enabled world. Chunks are stepped from the global scheduler and each one is
+     * cleared on the thread that owns it.
+     */
+    public void start() {
+        PluginSettings settings = plugin.getSettings();
         for (World world : Bukkit.getWorlds()) {
-            if (!plugin.getConfig().getBoolean("cleanup.worlds." + world.getName() + ".enabled", true)) {
+            if (!settings.isCleanupEnabled(world)) {
                 continue;
             }
             startAsyncCleanup(world);
@@ -97,11 +104,19 @@ public class MapCleanupTask extends BukkitRunnable {
         int minChunkZ = (int) Math.floor((centerZ - borderSize / 2) / 16);
         int maxChunkZ = (int) Math.ceil((centerZ + borderSize / 2) / 16);
 
+        AtomicInteger totalBlocksCleared = new AtomicInteger();
+        AtomicInteger pending = new AtomicInteger(1); // Held until every chunk has been dispatched
+        Runnable finish = () -> {
+            if (pending.decrementAndGet() == 0) {
+                onCleanupComplete(world, totalBlocksCleared.get());
+            }
+        };
+
         // Process chunks in batches to avoid lag
-        new BukkitRunnable() {
+        AtomicReference<ScheduledTask> stepper = new AtomicReference<>();
+        stepper.set(plugin.getTaskScheduler().runGlobalTimer(new Runnable() {
             private int currentChunkX = minChunkX;
             private int currentChunkZ = minChunkZ;
-            private int totalBlocksCleared = 0;
 
             @Override
             public void run() {
@@ -114,10 +129,16 @@ public class MapCleanupTask extends BukkitRunnable {
                         continue;
                     }
 
-                    // Only process loaded chunks to avoid forcing chunk loads
-                    if (world.isChunkLoaded(currentChunkX, currentChunkZ)) {
-                        totalBlocksCleared += clearBlocksInChunk(world, currentChunkX, currentChunkZ);
-                    }
+                    int chunkX = currentChunkX;
+                    int chunkZ = currentChunkZ;
+                    pending.incrementAndGet();
+                    plugin.getTaskScheduler().executeAtChunk(world, chunkX, chunkZ, () -> {
+                        // Only process loaded chunks to avoid forcing chunk loads
+                        if (world.isChunkLoaded(chunkX, chunkZ)) {
+                            totalBlocksCleared.addAndGet(clearBlocksInChunk(world, chunkX, chunkZ));
+                        }
+                        finish.run();
+                    });
 
                     currentChunkZ++;
                     chunksProcessed++;
@@ -125,14 +146,17 @@ public class MapCleanupTask extends BukkitRunnable {
 
                 // Check if done
                 if (currentChunkX > maxChunkX) {
-                    cancel();
-                    onCleanupComplete(world, totalBlocksCleared);
+                    ScheduledTask task = stepper.get();
+                    if (task != null) {
+                        task.cancel();
+                    }
+                    finish.run();
                 }
             }
-        }.runTaskTimer(plugin, 0L, 1L); // Process every tick
+        }, 1L, 1L)); // Process every tick
     }
 
-    private int clearBlocksInChunk(World world, int chunkX, int chunkZ) {
+    int clearBlocksInChunk(World world, int chunkX, int chunkZ) { // Package-private for the benchmarks
         int count = 0;
         int minY = world.getMinHeight();
         int maxY = world.getMaxHeight();
@@ -156,20 +180,10 @@ public class MapCleanupTask extends BukkitRunnable {
 
     private void onCleanupComplete(World world, int blocksCleared) {
         // Broadcast cleanup message if enabled
-        if (plugin.getConfig().getBoolean("cleanup.broadcast-cleanup", true) && blocksCleared > 0) {
-            String message = plugin.getConfig().getString(
-                            "messages.cleanup-complete",
-                            "&a✔ Map cleanup completed in {world}! Removed {count} blocks."
-                    ).replace("{count}", String.valueOf(blocksCleared))
-                    .replace("{world}", world.getName());
-
-            Bukkit.broadcastMessage(colorize(message));
+        if (plugin.getSettings().cleanupBroadcast() && blocksCleared > 0) {
+            plugin.getMessages().broadcast(Message.CLEANUP_COMPLETE, world.getName(), blocksCleared);
         }
 
         plugin.getLogger().info("Map cleanup completed in " + world.getName() + ". Removed " + blocksCleared + " blocks.");
     }
-
-    private String colorize(String message) {
-        return net.md_5.bungee.api.ChatColor.translateAlternateColorCodes('&', message);
-    }
 }
\ No newline at end of file